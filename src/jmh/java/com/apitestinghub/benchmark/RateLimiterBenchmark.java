@@ -0,0 +1,51 @@
+package com.apitestinghub.benchmark;
+
+import com.apitestinghub.util.GcraRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GcraRateLimiter#tryAcquire}, taken by every execution, cycling over a population of sessions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "200000"})
+    private int sessions;
+
+    private GcraRateLimiter limiter;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        limiter = new GcraRateLimiter(1_000_000, 1_000, 500_000);
+        keys = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            keys[i] = "session-" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String key = keys[next];
+        next = next + 1 == keys.length ? 0 : next + 1;
+        return limiter.tryAcquire(key);
+    }
+}
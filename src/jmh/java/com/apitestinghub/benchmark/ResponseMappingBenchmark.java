@@ -0,0 +1,73 @@
+package com.apitestinghub.benchmark;
+
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.ExecutionTimings;
+import com.apitestinghub.mapper.ApiResponseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiResponseMapper#mapFromResponseEntity} on a typical JSON API response, dominated by
+ * flattening the upstream headers with {@code toSingleValueMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private final ApiResponseMapper mapper = new ApiResponseMapper();
+    private final ExecutionTimings timings = new ExecutionTimings(
+            null, null, null, 40_000L, 20_000L, 55_000_000L, 1_000_000L, 58_000_000L, true);
+    private ResponseEntity<String> responseEntity;
+
+    @Setup
+    public void setUp() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Date", "Sat, 17 Oct 2026 05:00:00 GMT");
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("Content-Length", "1834");
+        headers.set("Connection", "keep-alive");
+        headers.set("Cache-Control", "private, max-age=60");
+        headers.set("ETag", "W/\"72a-1b2c3d4e5f\"");
+        headers.set("Vary", "Accept-Encoding");
+        headers.add("Vary", "Origin");
+        headers.set("X-Request-Id", "0f8fad5b-d9cb-469f-a165-70867728950e");
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", "4987");
+        headers.set("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
+        headers.add("Set-Cookie", "session=abc123; Path=/; HttpOnly; Secure");
+        headers.add("Set-Cookie", "theme=dark; Path=/");
+
+        StringBuilder body = new StringBuilder("{\"page\":1,\"items\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(i).append(",\"name\":\"item ").append(i).append("\"}");
+        }
+        body.append("]}");
+
+        responseEntity = ResponseEntity.status(HttpStatus.OK).headers(headers).body(body.toString());
+    }
+
+    @Benchmark
+    public ApiExecutionResponse mapFromResponseEntity() {
+        return mapper.mapFromResponseEntity(responseEntity, 58L, timings, "bench");
+    }
+}
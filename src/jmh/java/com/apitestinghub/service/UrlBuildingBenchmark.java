@@ -0,0 +1,59 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.mapper.ApiRequestMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiRequestMapper#buildUrl}, which merges the request's query parameters into its URL for every execution.
+ * Stays in the service package so its results keep matching the stored baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlBuildingBenchmark {
+
+    private final ApiRequestMapper mapper = new ApiRequestMapper();
+    private ApiRequest withoutParams;
+    private ApiRequest withParams;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("page", "2");
+        params.put("size", "50");
+        params.put("sort", "createdAt,desc");
+        params.put("q", "status:open label:bug");
+
+        withoutParams = new ApiRequest("GET", "https://api.example.com/v1/items?expand=owner",
+                Map.of(), Map.of(), null, "bench", null, null, null, null, null);
+        withParams = new ApiRequest("GET", "https://api.example.com/v1/items?expand=owner",
+                Map.of(), params, null, "bench", null, null, null, null, null);
+    }
+
+    @Benchmark
+    public String withoutQueryParams() {
+        return mapper.buildUrl(withoutParams);
+    }
+
+    @Benchmark
+    public String withQueryParams() {
+        return mapper.buildUrl(withParams);
+    }
+}
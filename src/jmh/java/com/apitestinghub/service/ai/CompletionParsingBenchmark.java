@@ -0,0 +1,71 @@
+package com.apitestinghub.service.ai;
+
+import com.apitestinghub.service.ai.AiRequestScheduler.Permit;
+import com.apitestinghub.service.ai.AiRequestScheduler.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ClientService.extractContentFromResponse} on a chat completion carrying a few KB of generated
+ * documentation. Lives in the AI package because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionParsingBenchmark {
+
+    private ClientService clientService;
+    private Permit permit;
+    private String response;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        AiRequestScheduler scheduler = new AiRequestScheduler(Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MAX_VALUE, Integer.MAX_VALUE, Duration.ofSeconds(10));
+        permit = scheduler.schedule(Priority.INTERACTIVE, 1, Mono::just).block();
+
+        clientService = new ClientService(WebClient.create(), objectMapper, scheduler, new SimpleMeterRegistry());
+
+        StringBuilder content = new StringBuilder("# Items API\n\n## Endpoint Overview\n\n");
+        for (int i = 0; i < 40; i++) {
+            content.append("- `items[").append(i).append("].name` (string): display name of the item, ")
+                    .append("unique within a page \"quoted\" and escaped\\n\n");
+        }
+        response = objectMapper.writeValueAsString(Map.of(
+                "id", "chatcmpl-9bench",
+                "object", "chat.completion",
+                "created", 1_792_213_200L,
+                "model", "gpt-4o",
+                "choices", new Object[]{Map.of(
+                        "index", 0,
+                        "message", Map.of("role", "assistant", "content", content.toString()),
+                        "finish_reason", "stop")},
+                "usage", Map.of("prompt_tokens", 812, "completion_tokens", 1024, "total_tokens", 1836)));
+    }
+
+    @Benchmark
+    public String extractContentFromResponse() {
+        return clientService.extractContentFromResponse(response, "documentation generation", permit);
+    }
+}
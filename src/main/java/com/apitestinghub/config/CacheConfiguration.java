@@ -1,46 +1,90 @@
 package com.apitestinghub.config;
 
+import com.apitestinghub.service.HttpResponseCache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 
 /**
- * Cache configuration for AI-powered services.
+ * Cache configuration for AI results, upstream responses and URL validations.
  * Uses Caffeine for high-performance in-memory caching.
  */
 @Configuration
-@EnableCaching
 public class CacheConfiguration {
 
+    @Value("${app.ai.cache.max-weight:32MB}")
+    private DataSize aiCacheMaxWeight;
+
+    @Value("${app.ai.cache.expire-after-write:6h}")
+    private Duration aiCacheExpireAfterWrite;
+
+    @Value("${app.ai.cache.expire-after-access:2h}")
+    private Duration aiCacheExpireAfterAccess;
+
+    @Value("${app.request.cache.max-weight:64MB}")
+    private DataSize httpCacheMaxWeight;
+
+    @Value("${app.request.cache.max-retention:1h}")
+    private Duration httpCacheMaxRetention;
+
+    @Value("${app.request.validation.cache-size:10000}")
+    private long urlValidationCacheSize;
+
+    @Value("${app.request.validation.ttl:5m}")
+    private Duration urlValidationTtl;
+
+    @Value("${app.request.validation.negative-ttl:30s}")
+    private Duration urlValidationNegativeTtl;
+
     /**
-     * Configure Caffeine cache manager with optimal settings for AI responses.
-     * AI responses can be large and expensive to generate, so we cache them aggressively.
+     * Cache of completed AI answers keyed by prompt digest.
+     * AI responses are expensive to generate, so they are kept aggressively, bounded by approximate byte size.
      */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-
-        // Enable async cache mode for reactive support
-        cacheManager.setAsyncCacheMode(true);
-
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(Duration.ofHours(6))
-                .expireAfterAccess(Duration.ofHours(2))
+    public AsyncCache<String, String> aiResultCacheStore() {
+        return Caffeine.newBuilder()
+                .maximumWeight(aiCacheMaxWeight.toBytes())
+                .weigher((String key, String value) -> 2 * (key.length() + value.length()))
+                .expireAfterWrite(aiCacheExpireAfterWrite)
+                .expireAfterAccess(aiCacheExpireAfterAccess)
                 .recordStats()
-                .weakKeys());
+                .buildAsync();
+    }
 
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-                "ai-documentation",    // Full API documentation generation
-                "ai-descriptions",     // API endpoint descriptions
-                "ai-analysis"          // API response analysis
-        ));
+    /**
+     * Cache of upstream responses for idempotent executions.
+     * Weighted by approximate byte size, since bodies range from a few bytes to megabytes.
+     * Entries are kept past their freshness lifetime so they can still be revalidated cheaply.
+     */
+    @Bean
+    public Cache<HttpResponseCache.Key, HttpResponseCache.Entry> httpResponseCacheStore() {
+        return Caffeine.newBuilder()
+                .maximumWeight(httpCacheMaxWeight.toBytes())
+                .weigher((HttpResponseCache.Key key, HttpResponseCache.Entry entry) -> entry.weight())
+                .expireAfterWrite(httpCacheMaxRetention)
+                .recordStats()
+                .build();
+    }
 
-        return cacheManager;
+    /**
+     * Cache of URL validation results keyed by URL.
+     * Failures are often transient, so they expire sooner than successes. Checks still in flight are cached
+     * too, so concurrent validations of one URL share a single HEAD request.
+     */
+    @Bean
+    public AsyncCache<String, Boolean> urlValidationCacheStore() {
+        return Caffeine.newBuilder()
+                .maximumSize(urlValidationCacheSize)
+                .expireAfter(Expiry.creating((String url, Boolean valid) ->
+                        valid ? urlValidationTtl : urlValidationNegativeTtl))
+                .recordStats()
+                .buildAsync();
     }
-}
\ No newline at end of file
+}
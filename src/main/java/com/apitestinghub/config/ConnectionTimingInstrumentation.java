@@ -0,0 +1,100 @@
+package com.apitestinghub.config;
+
+import com.apitestinghub.util.RequestTimingRecorder;
+import com.apitestinghub.util.RequestTimingRecorder.ConnectionTimings;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+import java.util.function.Consumer;
+
+/**
+ * Installs Reactor Netty hooks that feed per-phase timings into the {@link RequestTimingRecorder}
+ * found in the subscriber context.
+ * <p>
+ * Connection setup (DNS, connect, TLS) is tracked per channel and attributed to the first request
+ * sent over it. Requests without a recorder in their context are left untouched.
+ */
+final class ConnectionTimingInstrumentation {
+
+    private static final AttributeKey<ConnectionTimings> CONNECTION_TIMINGS =
+            AttributeKey.valueOf("apitestinghub.connectionTimings");
+
+    private static final String TIMING_HANDLER = "apitestinghub.connectionTimingHandler";
+
+    private ConnectionTimingInstrumentation() {
+    }
+
+    static HttpClient instrument(HttpClient httpClient) {
+        return httpClient
+                .doOnChannelInit((observer, channel, remoteAddress) -> {
+                    channel.attr(CONNECTION_TIMINGS).set(new ConnectionTimings());
+                    channel.pipeline().addFirst(TIMING_HANDLER, new ConnectHandler());
+                })
+                .doOnResolve(connection -> withConnection(connection, ConnectionTimings::resolveStarted))
+                .doAfterResolve((connection, address) -> withConnection(connection, ConnectionTimings::resolveCompleted))
+                .doOnRequest((request, connection) -> {
+                    RequestTimingRecorder recorder = recorder(request.currentContextView());
+                    if (recorder != null) {
+                        recorder.requestStarted(connection.channel().attr(CONNECTION_TIMINGS).get());
+                    }
+                })
+                .doAfterRequest((request, connection) -> {
+                    RequestTimingRecorder recorder = recorder(request.currentContextView());
+                    if (recorder != null) {
+                        recorder.requestSent();
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    RequestTimingRecorder recorder = recorder(response.currentContextView());
+                    if (recorder != null) {
+                        recorder.responseHeadersReceived();
+                    }
+                })
+                .doAfterResponseSuccess((response, connection) -> {
+                    RequestTimingRecorder recorder = recorder(response.currentContextView());
+                    if (recorder != null) {
+                        recorder.responseCompleted();
+                    }
+                });
+    }
+
+    private static void withConnection(Connection connection, Consumer<ConnectionTimings> action) {
+        ConnectionTimings timings = connection.channel().attr(CONNECTION_TIMINGS).get();
+        if (timings != null) {
+            action.accept(timings);
+        }
+    }
+
+    private static RequestTimingRecorder recorder(ContextView context) {
+        return context.getOrDefault(RequestTimingRecorder.CONTEXT_KEY, null);
+    }
+
+    /**
+     * Sits at the head of the pipeline so it sees the TCP connection become active
+     * before the TLS handshake starts, then removes itself.
+     */
+    private static final class ConnectHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            Channel channel = ctx.channel();
+            ConnectionTimings timings = channel.attr(CONNECTION_TIMINGS).get();
+            if (timings != null) {
+                timings.connected();
+                SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
+                if (sslHandler != null) {
+                    timings.tlsStarted();
+                    sslHandler.handshakeFuture().addListener(future -> timings.tlsCompleted());
+                }
+            }
+            ctx.pipeline().remove(this);
+            super.channelActive(ctx);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.apitestinghub.config;
+
+import com.apitestinghub.service.HttpResponseCache;
+import com.apitestinghub.service.UrlValidationService;
+import com.apitestinghub.service.ai.AiResultCache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registry-wide meter settings.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Value("${app.request.metrics.max-hosts:200}")
+    private int maxHosts;
+
+    /**
+     * Reactor Netty keeps one pool per remote address, and proxied targets are user supplied,
+     * so pool gauges beyond the host cap are dropped instead of growing the registry without bound.
+     */
+    @Bean
+    public MeterFilter connectionPoolRemoteAddressLimit() {
+        return MeterFilter.maximumAllowableTags("reactor.netty.connection.provider", "remote.address",
+                maxHosts, MeterFilter.deny());
+    }
+
+    /**
+     * Publishes the cache.* meters (gets, puts, evictions, size) for all caches, tagged by cache name.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(AsyncCache<String, String> aiResultCacheStore,
+                                    Cache<HttpResponseCache.Key, HttpResponseCache.Entry> httpResponseCacheStore,
+                                    AsyncCache<String, Boolean> urlValidationCacheStore) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, aiResultCacheStore, AiResultCache.NAME);
+            CaffeineCacheMetrics.monitor(registry, httpResponseCacheStore, HttpResponseCache.NAME);
+            CaffeineCacheMetrics.monitor(registry, urlValidationCacheStore, UrlValidationService.NAME);
+        };
+    }
+}
@@ -19,7 +19,8 @@ import java.util.List;
 @Configuration
 public class OpenApiConfig {
 
-    @Value("${server.servlet.context-path:/api/v1}")
+    // WebFlux serves under spring.webflux.base-path, the servlet stack under its context path
+    @Value("${spring.webflux.base-path:${server.servlet.context-path:/api/v1}}")
     private String contextPath;
 
     @Bean
@@ -26,6 +26,12 @@ public class WebClientConfig {
     @Value("${app.request.connection-timeout:5000}")
     private int connectionTimeout;
 
+    @Value("${app.request.pool.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${app.request.pool.max-pending-acquires:2000}")
+    private int maxPendingAcquires;
+
     @Value("${app.ai.github-models.endpoint}")
     private String githubModelsEndpoint;
 
@@ -33,30 +39,57 @@ public class WebClientConfig {
     private String githubModelsApiKey;
 
     /**
-     * General purpose WebClient for executing user API requests
+     * Connection pool shared by the decoding and passthrough API request clients
      */
-    @Bean("apiRequestWebClient")
-    public WebClient apiRequestWebClient() {
-        // Optimize connection pool settings
-        ConnectionProvider provider = ConnectionProvider.builder("api-requests")
-                .maxConnections(100)
+    @Bean(name = "apiRequestConnectionProvider", destroyMethod = "dispose")
+    public ConnectionProvider apiRequestConnectionProvider() {
+        // Requests beyond the pool wait for a connection rather than failing; Reactor's default queue is 2x the pool
+        return ConnectionProvider.builder("api-requests")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
                 .maxIdleTime(Duration.ofSeconds(30))
                 .maxLifeTime(Duration.ofMinutes(5))
                 .pendingAcquireTimeout(Duration.ofSeconds(10))
                 .evictInBackground(Duration.ofSeconds(30))
+                // Active, idle and pending-acquire gauges under reactor.netty.connection.provider.*
+                .metrics(true)
                 .build();
+    }
+
+    /**
+     * General purpose WebClient for executing user API requests
+     */
+    @Bean("apiRequestWebClient")
+    public WebClient apiRequestWebClient() {
+        // Advertise gzip upstream and decode it, since execution bodies are returned as text
+        return apiRequestWebClient(apiRequestHttpClient().compress(true));
+    }
+
+    /**
+     * WebClient for streamed executions that forward the upstream {@code Content-Encoding}. It neither
+     * sets {@code Accept-Encoding} nor decompresses, so encoded bodies are relayed byte for byte.
+     */
+    @Bean("apiRequestPassthroughWebClient")
+    public WebClient apiRequestPassthroughWebClient() {
+        return apiRequestWebClient(apiRequestHttpClient().compress(false));
+    }
 
+    private HttpClient apiRequestHttpClient() {
         // Configure HTTP client with timeouts
-        HttpClient httpClient = HttpClient.create(provider)
+        HttpClient httpClient = HttpClient.create(apiRequestConnectionProvider())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
                 .responseTimeout(Duration.ofMillis(requestTimeout))
                 .doOnConnected(conn ->
                         conn.addHandlerLast(new ReadTimeoutHandler(requestTimeout, TimeUnit.MILLISECONDS))
                                 .addHandlerLast(new WriteTimeoutHandler(requestTimeout, TimeUnit.MILLISECONDS))
                 )
-                .followRedirect(true)
-                .compress(true);
+                .followRedirect(true);
+
+        // Record DNS, connect, TLS and transfer phases for ApiExecutionResponse.timings
+        return ConnectionTimingInstrumentation.instrument(httpClient);
+    }
 
+    private WebClient apiRequestWebClient(HttpClient httpClient) {
         // Set maximum memory size for responses
         ExchangeStrategies strategies = ExchangeStrategies.builder()
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
@@ -81,6 +114,7 @@ public class WebClientConfig {
                 .maxLifeTime(Duration.ofMinutes(10))
                 .pendingAcquireTimeout(Duration.ofSeconds(15))
                 .evictInBackground(Duration.ofSeconds(60))
+                .metrics(true)
                 .build();
 
         // Configure HTTP client with timeouts
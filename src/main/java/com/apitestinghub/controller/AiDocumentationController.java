@@ -2,6 +2,7 @@ package com.apitestinghub.controller;
 
 import com.apitestinghub.dto.request.ApiRequest;
 import com.apitestinghub.dto.request.DocumentationGenerationRequest;
+import com.apitestinghub.dto.response.AiStreamChunk;
 import com.apitestinghub.dto.response.ApiExecutionResponse;
 import com.apitestinghub.service.ai.DocumentationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,8 +12,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -95,6 +99,33 @@ public class AiDocumentationController {
                 .onErrorResume(this::handleError);
     }
 
+    @PostMapping(value = "/describe/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream API Description",
+            description = "Stream a concise endpoint description as server-sent events while it is generated")
+    public Flux<ServerSentEvent<AiStreamChunk>> streamDescription(@Valid @RequestBody ApiRequest request) {
+        logger.debug("Streaming description for {} {}", request.method(), request.url());
+        return toEventStream(aiDocumentationService.streamApiDescription(request));
+    }
+
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream API Response Analysis",
+            description = "Stream an analysis of an API response as server-sent events while it is generated")
+    public Flux<ServerSentEvent<AiStreamChunk>> streamAnalysis(@Valid @RequestBody ApiExecutionResponse response) {
+        logger.debug("Streaming analysis for response with status {}", response.statusCode());
+        return toEventStream(aiDocumentationService.streamResponseAnalysis(response));
+    }
+
+    @PostMapping(value = "/documentation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Full Documentation",
+            description = "Stream comprehensive API documentation as server-sent events while it is generated")
+    public Flux<ServerSentEvent<AiStreamChunk>> streamFullDocumentation(
+            @Valid @RequestBody DocumentationGenerationRequest request) {
+
+        logger.debug("Streaming full documentation for {} {}",
+                request.apiRequest().method(), request.apiRequest().url());
+        return toEventStream(aiDocumentationService.streamDocumentation(request.apiRequest(), request.apiResponse()));
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health Check", description = "Check the health status of AI documentation service")
     public Mono<ResponseEntity<String>> healthCheck() {
@@ -123,4 +154,19 @@ public class AiDocumentationController {
         return Mono.just(ResponseEntity.status(500)
                 .body("Internal server error: " + throwable.getMessage()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Content deltas are sent as unnamed events, followed by a terminal {@code done} or {@code error} event.
+     */
+    private Flux<ServerSentEvent<AiStreamChunk>> toEventStream(Flux<String> deltas) {
+        return deltas
+                .map(delta -> ServerSentEvent.builder(new AiStreamChunk(delta)).build())
+                .concatWith(Flux.just(ServerSentEvent.<AiStreamChunk>builder().event("done").build()))
+                .onErrorResume(throwable -> {
+                    logger.error("Error in AI documentation stream: {}", throwable.getMessage());
+                    return Flux.just(ServerSentEvent.builder(new AiStreamChunk(throwable.getMessage()))
+                            .event("error")
+                            .build());
+                });
+    }
+}
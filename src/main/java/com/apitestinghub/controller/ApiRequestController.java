@@ -1,8 +1,17 @@
 package com.apitestinghub.controller;
 
 import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.BatchExecutionRequest;
+import com.apitestinghub.dto.request.LoadTestRequest;
+import com.apitestinghub.dto.request.UrlValidationBatchRequest;
 import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.BatchExecutionResult;
+import com.apitestinghub.dto.response.LoadTestResponse;
+import com.apitestinghub.exception.RateLimitExceededException;
 import com.apitestinghub.service.ApiRequestService;
+import com.apitestinghub.service.BatchExecutionService;
+import com.apitestinghub.service.LoadTestService;
+import com.apitestinghub.service.UrlValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,19 +19,35 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/requests")
 public class ApiRequestController {
     private static final Logger logger = LoggerFactory.getLogger(ApiRequestController.class);
+
     private final ApiRequestService apiRequestService;
+    private final BatchExecutionService batchExecutionService;
+    private final LoadTestService loadTestService;
+    private final UrlValidationService urlValidationService;
 
     @Autowired
-    public ApiRequestController(ApiRequestService apiRequestService) {
+    public ApiRequestController(ApiRequestService apiRequestService,
+                                BatchExecutionService batchExecutionService,
+                                LoadTestService loadTestService,
+                                UrlValidationService urlValidationService) {
         this.apiRequestService = apiRequestService;
+        this.batchExecutionService = batchExecutionService;
+        this.loadTestService = loadTestService;
+        this.urlValidationService = urlValidationService;
     }
 
     @PostMapping("/execute")
@@ -30,22 +55,65 @@ public class ApiRequestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Request executed successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "429", description = "Session or target host rate limit exceeded"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public Mono<ResponseEntity<ApiExecutionResponse>> executeRequest(@Valid @RequestBody ApiRequest request) {
         logger.debug("Executing request: {} {}", request.method(), request.url());
 
-        return apiRequestService
-                .executeRequest(request)
+        return Mono.defer(() -> apiRequestService.executeRequest(request))
                 .map(ResponseEntity::ok)
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.just(ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .<ApiExecutionResponse>build()))
                 .onErrorResume(ex -> {
                     logger.error("Error executing request: {}", ex.getMessage());
                     return Mono.just(ResponseEntity.badRequest().build());
                 });
     }
 
+    @PostMapping(value = "/execute-batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Execute API Requests in Batch",
+            description = "Execute a list of HTTP requests with bounded concurrency per batch and per target host. "
+                    + "Results are streamed as NDJSON in completion order, each tagged with its index in the batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch results are being streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid batch")
+    })
+    public ResponseEntity<Flux<BatchExecutionResult>> executeBatch(@Valid @RequestBody BatchExecutionRequest request) {
+        logger.debug("Executing batch of {} requests", request.requests().size());
+
+        try {
+            return ResponseEntity.ok(batchExecutionService.executeBatch(request));
+        } catch (Exception ex) {
+            logger.error("Error executing batch: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/load-test")
+    @Operation(summary = "Load Test API Request",
+            description = "Drive a single request at a target rate (open model) or concurrency (closed model) "
+                    + "and report latency percentiles, throughput and an error breakdown")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Load test completed"),
+            @ApiResponse(responseCode = "400", description = "Invalid load test parameters")
+    })
+    public Mono<ResponseEntity<LoadTestResponse>> runLoadTest(@Valid @RequestBody LoadTestRequest request) {
+        logger.debug("Load testing request: {} {}", request.request().method(), request.request().url());
+
+        return Mono.defer(() -> loadTestService.runLoadTest(request))
+                .map(ResponseEntity::ok)
+                .onErrorResume(ex -> {
+                    logger.error("Error running load test: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
     @PostMapping("/validate")
-    @Operation(summary = "Validate URL", description = "Check if a URL is safe and accessible")
+    @Operation(summary = "Validate URL",
+            description = "Check if a URL is safe and accessible. Results are cached briefly, failures for less time")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "URL validation result"),
             @ApiResponse(responseCode = "400", description = "Invalid URL format")
@@ -53,8 +121,8 @@ public class ApiRequestController {
     public Mono<ResponseEntity<Boolean>> validateUrl(@RequestParam String url) {
         logger.debug("Validating URL: {}", url);
 
-        return apiRequestService
-                .validateUrl(url)
+        return urlValidationService
+                .validate(url)
                 .map(ResponseEntity::ok)
                 .onErrorResume(ex -> {
                     logger.error("Error validating URL: {}", ex.getMessage());
@@ -62,6 +130,25 @@ public class ApiRequestController {
                 });
     }
 
+    @PostMapping("/validate-batch")
+    @Operation(summary = "Validate URLs",
+            description = "Check many URLs concurrently, with a per-host limit. Returns a map from each distinct URL "
+                    + "to its result, in the order given")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URL validation results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    public Mono<ResponseEntity<Map<String, Boolean>>> validateUrls(@Valid @RequestBody UrlValidationBatchRequest request) {
+        logger.debug("Validating {} URLs", request.urls().size());
+
+        return Mono.defer(() -> urlValidationService.validateAll(request.urls()))
+                .map(ResponseEntity::ok)
+                .onErrorResume(ex -> {
+                    logger.error("Error validating URLs: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health Check", description = "Check if the API request service is healthy")
     public ResponseEntity<String> healthCheck() {
@@ -0,0 +1,166 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.request.CacheWarmUpRequest;
+import com.apitestinghub.dto.response.CacheInvalidationResult;
+import com.apitestinghub.dto.response.CacheStatistics;
+import com.apitestinghub.dto.response.CacheWarmUpJob;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.service.CacheAdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Cache statistics, invalidation and warm-up. Every endpoint requires the {@code X-Admin-Token} header
+ * to match {@code app.admin.token}; with no token configured the endpoints are disabled.
+ */
+@RestController
+@RequestMapping("/admin/caches")
+@Tag(name = "Cache Administration", description = "Inspect, invalidate and warm up the response and AI result caches")
+public class CacheAdminController {
+    private static final Logger logger = LoggerFactory.getLogger(CacheAdminController.class);
+
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final CacheAdminService cacheAdminService;
+
+    @Value("${app.admin.token:}")
+    private String adminToken;
+
+    @Autowired
+    public CacheAdminController(CacheAdminService cacheAdminService) {
+        this.cacheAdminService = cacheAdminService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Cache Statistics", description = "Hit, miss and eviction rates, load penalty, weight and size of every cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics of all caches"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token")
+    })
+    public ResponseEntity<List<CacheStatistics>> getStatistics(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(cacheAdminService.statistics());
+    }
+
+    @GetMapping("/{name}")
+    @Operation(summary = "Cache Statistics by Name", description = "Statistics of a single cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics of the cache"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token"),
+            @ApiResponse(responseCode = "404", description = "Unknown cache")
+    })
+    public ResponseEntity<CacheStatistics> getStatistics(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable String name) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.of(cacheAdminService.statistics(name));
+    }
+
+    @DeleteMapping("/{name}")
+    @Operation(summary = "Invalidate Cache Entries",
+            description = "Invalidate the entries of a cache for an exact source URL, a key prefix, or both. "
+                    + "For the response cache the prefix matches request URLs; for the AI result cache it matches "
+                    + "the hashed cache key. Without either parameter the whole cache is cleared")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of invalidated entries"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token"),
+            @ApiResponse(responseCode = "404", description = "Unknown cache")
+    })
+    public ResponseEntity<CacheInvalidationResult> invalidate(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable String name,
+            @RequestParam(required = false) String url,
+            @RequestParam(required = false) String prefix) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(cacheAdminService.invalidate(name, url, prefix));
+        } catch (ApiRequestException ex) {
+            logger.warn("Error invalidating cache {}: {}", name, ex.getMessage());
+            return ResponseEntity.status(ex.getHttpStatus()).build();
+        }
+    }
+
+    @PostMapping("/warm-up")
+    @Operation(summary = "Warm Up Caches",
+            description = "Execute safe requests and pre-generate their descriptions in the background "
+                    + "with bounded parallelism. Poll the returned job for progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Warm-up started"),
+            @ApiResponse(responseCode = "400", description = "Invalid warm-up request"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token"),
+            @ApiResponse(responseCode = "409", description = "Another warm-up is already running")
+    })
+    public ResponseEntity<CacheWarmUpJob> startWarmUp(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            @Valid @RequestBody CacheWarmUpRequest request) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cacheAdminService.startWarmUp(request));
+        } catch (ApiRequestException ex) {
+            logger.warn("Error starting cache warm-up: {}", ex.getMessage());
+            return ResponseEntity.status(ex.getHttpStatus()).build();
+        }
+    }
+
+    @GetMapping("/warm-up/{id}")
+    @Operation(summary = "Warm-up Progress", description = "Progress of a recent warm-up job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Warm-up job state"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    public ResponseEntity<CacheWarmUpJob> getWarmUp(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable String id) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.of(cacheAdminService.warmUpJob(id));
+    }
+
+    @DeleteMapping("/warm-up/{id}")
+    @Operation(summary = "Cancel Warm-up", description = "Stop a running warm-up job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Warm-up job state after cancellation"),
+            @ApiResponse(responseCode = "403", description = "Missing or invalid admin token"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    public ResponseEntity<CacheWarmUpJob> cancelWarmUp(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable String id) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.of(cacheAdminService.cancelWarmUp(id));
+    }
+
+    private boolean authorized(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.request.CollectionRunRequest;
+import com.apitestinghub.dto.response.CollectionStepResult;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.service.CollectionRunService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/collections")
+public class CollectionController {
+    private static final Logger logger = LoggerFactory.getLogger(CollectionController.class);
+
+    private final CollectionRunService collectionRunService;
+
+    @Autowired
+    public CollectionController(CollectionRunService collectionRunService) {
+        this.collectionRunService = collectionRunService;
+    }
+
+    @PostMapping(value = "/run", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Run Collection",
+            description = "Run a collection of requests using {{variable}} placeholders, with values extracted from "
+                    + "earlier responses. Independent steps run in parallel within the concurrency limits and "
+                    + "each step starts as soon as the steps it depends on finish. Results are streamed as "
+                    + "NDJSON in completion order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Step results are being streamed"),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid collection, undefined variable or cyclic dependencies")
+    })
+    public ResponseEntity<Flux<CollectionStepResult>> runCollection(@Valid @RequestBody CollectionRunRequest request) {
+        logger.debug("Running collection of {} steps", request.steps().size());
+
+        try {
+            return ResponseEntity.ok(collectionRunService.run(request));
+        } catch (ApiRequestException ex) {
+            logger.warn("Invalid collection: {}", ex.getMessage());
+            return ResponseEntity.status(ex.getHttpStatus()).build();
+        } catch (Exception ex) {
+            logger.error("Error running collection: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.request.ExecutionDiffRequest;
+import com.apitestinghub.dto.response.ExecutionDiff;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.service.ExecutionDiffService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/requests")
+public class ExecutionDiffController {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionDiffController.class);
+
+    private final ExecutionDiffService diffService;
+
+    @Autowired
+    public ExecutionDiffController(ExecutionDiffService diffService) {
+        this.diffService = diffService;
+    }
+
+    @PostMapping("/diff")
+    @Operation(summary = "Diff Executions",
+            description = "Structural diff of status, headers and JSON body between a baseline and a candidate "
+                    + "execution, given inline or by requestId from the session's history, or between a recorded "
+                    + "execution and a fresh replay of it. Volatile body paths and headers can be ignored")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Differences found, if any"),
+            @ApiResponse(responseCode = "400", description = "Invalid diff request"),
+            @ApiResponse(responseCode = "404", description = "Execution not in the session's history"),
+            @ApiResponse(responseCode = "429", description = "Session or target host rate limit exceeded on replay")
+    })
+    public Mono<ResponseEntity<ExecutionDiff>> diffExecutions(@Valid @RequestBody ExecutionDiffRequest request) {
+        return Mono.defer(() -> diffService.diff(request))
+                .map(ResponseEntity::ok)
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.just(ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .<ExecutionDiff>build()))
+                .onErrorResume(ApiRequestException.class, ex -> {
+                    logger.warn("Error diffing executions: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.status(ex.getHttpStatus()).build());
+                })
+                .onErrorResume(ex -> {
+                    logger.error("Error diffing executions: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.ExecutionHistoryEntry;
+import com.apitestinghub.dto.response.ExecutionHistoryItem;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.service.ApiRequestService;
+import com.apitestinghub.service.ExecutionHistory;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/requests/history")
+public class ExecutionHistoryController {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionHistoryController.class);
+
+    private final ExecutionHistory history;
+    private final ApiRequestService apiRequestService;
+
+    @Autowired
+    public ExecutionHistoryController(ExecutionHistory history, ApiRequestService apiRequestService) {
+        this.history = history;
+        this.apiRequestService = apiRequestService;
+    }
+
+    @GetMapping
+    @Operation(summary = "List Execution History", description = "Recent executions of a session, newest first, without bodies")
+    public ResponseEntity<List<ExecutionHistoryItem>> listExecutions(@RequestParam String sessionId) {
+        return ResponseEntity.ok(history.list(sessionId));
+    }
+
+    @GetMapping("/{requestId}")
+    @Operation(summary = "Get Past Execution", description = "The recorded request and response of a past execution")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recorded execution"),
+            @ApiResponse(responseCode = "404", description = "Unknown execution, or no longer in the session's history")
+    })
+    public ResponseEntity<ExecutionHistoryEntry> getExecution(@PathVariable String requestId,
+                                                              @RequestParam String sessionId) {
+        return ResponseEntity.of(history.find(sessionId, requestId));
+    }
+
+    @PostMapping("/{requestId}/replay")
+    @Operation(summary = "Replay Past Execution", description = "Execute a recorded request again without re-sending it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request executed successfully"),
+            @ApiResponse(responseCode = "400", description = "Request could not be executed"),
+            @ApiResponse(responseCode = "404", description = "Unknown execution, or no longer in the session's history"),
+            @ApiResponse(responseCode = "429", description = "Session or target host rate limit exceeded")
+    })
+    public Mono<ResponseEntity<ApiExecutionResponse>> replayExecution(@PathVariable String requestId,
+                                                                      @RequestParam String sessionId) {
+        logger.debug("Replaying execution {} of session {}", requestId, sessionId);
+
+        return Mono.justOrEmpty(history.findRequest(sessionId, requestId))
+                .flatMap(apiRequestService::executeRequest)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.just(ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .<ApiExecutionResponse>build()))
+                .onErrorResume(ex -> {
+                    logger.error("Error replaying execution {}: {}", requestId, ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Clear Execution History", description = "Forget all recorded executions of a session")
+    public ResponseEntity<Integer> clearExecutions(@RequestParam String sessionId) {
+        return ResponseEntity.ok(history.clear(sessionId));
+    }
+}
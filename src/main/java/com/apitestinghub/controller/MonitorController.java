@@ -0,0 +1,83 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.request.MonitorRequest;
+import com.apitestinghub.dto.response.MonitorStatus;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.service.MonitorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/monitors")
+public class MonitorController {
+    private static final Logger logger = LoggerFactory.getLogger(MonitorController.class);
+
+    private final MonitorService monitorService;
+
+    @Autowired
+    public MonitorController(MonitorService monitorService) {
+        this.monitorService = monitorService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Register Monitor",
+            description = "Execute a request on a fixed interval and keep rolling availability and latency "
+                    + "statistics for it. The first run happens at a random point within the first interval")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Monitor registered"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or interval"),
+            @ApiResponse(responseCode = "503", description = "Monitor limit reached")
+    })
+    public ResponseEntity<MonitorStatus> registerMonitor(@Valid @RequestBody MonitorRequest request) {
+        logger.debug("Registering monitor for {} {}", request.request().method(), request.request().url());
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(monitorService.register(request));
+        } catch (ApiRequestException ex) {
+            logger.warn("Invalid monitor: {}", ex.getMessage());
+            return ResponseEntity.status(ex.getHttpStatus()).build();
+        } catch (Exception ex) {
+            logger.error("Error registering monitor: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping
+    @Operation(summary = "List Monitors", description = "Monitors registered by a session, oldest first, with their statistics")
+    public ResponseEntity<List<MonitorStatus>> listMonitors(@RequestParam String sessionId) {
+        return ResponseEntity.ok(monitorService.list(sessionId));
+    }
+
+    @GetMapping("/{monitorId}")
+    @Operation(summary = "Get Monitor", description = "Lifetime counters and statistics over the most recent runs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Monitor status"),
+            @ApiResponse(responseCode = "404", description = "Unknown monitor")
+    })
+    public ResponseEntity<MonitorStatus> getMonitor(@PathVariable String monitorId) {
+        MonitorStatus status = monitorService.get(monitorId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{monitorId}")
+    @Operation(summary = "Delete Monitor", description = "Stop running a monitor and discard its statistics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Monitor deleted"),
+            @ApiResponse(responseCode = "404", description = "Unknown monitor")
+    })
+    public ResponseEntity<Void> deleteMonitor(@PathVariable String monitorId) {
+        return monitorService.delete(monitorId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.service.ResponseSpillStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Spilled body downloads on the reactive stack. File resources are written through Netty's
+ * zero-copy file region, which uses {@code transferTo}.
+ */
+@RestController
+@RequestMapping("/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSpilledBodyController extends SpilledBodyController {
+
+    public ReactiveSpilledBodyController(ResponseSpillStore spillStore) {
+        super(spillStore);
+    }
+
+    @GetMapping("/bodies/{id}")
+    @Operation(summary = SUMMARY, description = DESCRIPTION)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Full response body"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired body")
+    })
+    public ResponseEntity<Resource> downloadSpilledBody(@PathVariable String id) {
+        return spillStore.find(id)
+                .map(file -> ResponseEntity.ok()
+                        .headers(downloadHeaders(file))
+                        .<Resource>body(new FileSystemResource(file.path())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
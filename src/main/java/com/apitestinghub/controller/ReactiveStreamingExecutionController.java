@@ -0,0 +1,61 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.service.ApiRequestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streaming execution on the reactive stack: upstream buffers are handed straight to the server
+ * connection, which releases them once written, so no thread waits on either side.
+ */
+@RestController
+@RequestMapping("/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStreamingExecutionController extends StreamingExecutionController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveStreamingExecutionController.class);
+
+    public ReactiveStreamingExecutionController(ApiRequestService apiRequestService, ObjectMapper objectMapper) {
+        super(apiRequestService, objectMapper);
+    }
+
+    @PostMapping("/execute-stream")
+    @Operation(summary = SUMMARY, description = DESCRIPTION)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upstream response is being streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "429", description = "Session or target host rate limit exceeded")
+    })
+    public Mono<ResponseEntity<Flux<DataBuffer>>> executeStreamingRequest(
+            @Valid @RequestBody ApiRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.debug("Executing streaming request: {} {}", request.method(), request.url());
+
+        return Mono.defer(() -> apiRequestService.executeStreamingRequest(request, acceptEncoding))
+                .map(execution -> ResponseEntity.ok()
+                        .headers(streamingHeaders(execution))
+                        .body(execution.body()))
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.just(tooManyRequests(ex)))
+                .onErrorResume(ex -> {
+                    logger.error("Error executing streaming request: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+}
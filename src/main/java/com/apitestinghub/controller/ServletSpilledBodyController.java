@@ -0,0 +1,72 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.service.ResponseSpillStore;
+import com.apitestinghub.service.ResponseSpillStore.SpilledFile;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Spilled body downloads on the servlet stack. Tomcat sends the file with {@code sendfile} after the
+ * handler returns; without connector support the file is copied with {@link FileChannel#transferTo}.
+ */
+@RestController
+@RequestMapping("/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletSpilledBodyController extends SpilledBodyController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    public ServletSpilledBodyController(ResponseSpillStore spillStore) {
+        super(spillStore);
+    }
+
+    @GetMapping("/bodies/{id}")
+    @Operation(summary = SUMMARY, description = DESCRIPTION)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Full response body"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired body")
+    })
+    public void downloadSpilledBody(@PathVariable String id, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Optional<SpilledFile> found = spillStore.find(id);
+        if (found.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        SpilledFile file = found.get();
+        downloadHeaders(file).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.size());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < file.size()) {
+                position += channel.transferTo(position, file.size() - position, out);
+            }
+        }
+    }
+}
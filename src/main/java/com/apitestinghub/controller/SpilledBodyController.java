@@ -0,0 +1,35 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.service.ResponseSpillStore;
+import com.apitestinghub.service.ResponseSpillStore.SpilledFile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Shared part of {@code GET /requests/bodies/{id}}. Zero-copy transfer works differently on Tomcat and
+ * Netty, so each stack has its own controller and only one is registered.
+ * <p>
+ * Bodies are served as {@code application/octet-stream} attachments: response compression only applies to
+ * text types and would otherwise rule out sending the file straight from the page cache.
+ */
+abstract class SpilledBodyController {
+
+    static final String SUMMARY = "Download Spilled Body";
+    static final String DESCRIPTION = "Download the full body of an execution whose response was too large to "
+            + "return inline, by the id in its spilledBody handle. Files expire after app.request.spill.ttl";
+
+    protected final ResponseSpillStore spillStore;
+
+    protected SpilledBodyController(ResponseSpillStore spillStore) {
+        this.spillStore = spillStore;
+    }
+
+    protected HttpHeaders downloadHeaders(SpilledFile file) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentLength(file.size());
+        headers.setContentDisposition(ContentDisposition.attachment().filename(file.id() + ".body").build());
+        return headers;
+    }
+}
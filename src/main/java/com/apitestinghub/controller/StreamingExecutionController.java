@@ -0,0 +1,77 @@
+package com.apitestinghub.controller;
+
+import com.apitestinghub.dto.response.ApiStreamEnvelope;
+import com.apitestinghub.dto.response.StreamedExecution;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.service.ApiRequestService;
+import com.apitestinghub.util.HttpUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Shared part of {@code POST /requests/execute-stream}. The body has to be written differently on the
+ * servlet and reactive stacks, so each has its own controller and only one is registered.
+ */
+abstract class StreamingExecutionController {
+
+    static final String ENVELOPE_HEADER = "X-Api-Envelope";
+
+    static final String SUMMARY = "Execute API Request (streaming)";
+    static final String DESCRIPTION = "Execute an HTTP request and stream the upstream body back as it arrives. "
+            + "Upstream status, headers and timing are returned as JSON in the " + ENVELOPE_HEADER + " header. "
+            + "Compressed upstream bodies in an encoding the caller accepts are relayed without re-encoding";
+
+    protected final ApiRequestService apiRequestService;
+    private final ObjectWriter envelopeWriter;
+
+    protected StreamingExecutionController(ApiRequestService apiRequestService, ObjectMapper objectMapper) {
+        this.apiRequestService = apiRequestService;
+        // Header values must be a single ASCII line, so escape anything else coming from upstream
+        this.envelopeWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .with(JsonWriteFeature.ESCAPE_NON_ASCII);
+    }
+
+    /**
+     * Envelope header plus the upstream content type and encoding.
+     * <p>
+     * A body relayed still encoded keeps its {@code Content-Encoding}, which also stops the server
+     * from compressing it a second time.
+     */
+    protected HttpHeaders streamingHeaders(StreamedExecution execution) {
+        ApiStreamEnvelope envelope = execution.envelope();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ENVELOPE_HEADER, writeEnvelope(envelope));
+        copyUpstreamHeader(envelope, HttpHeaders.CONTENT_TYPE, headers);
+        copyUpstreamHeader(envelope, HttpHeaders.CONTENT_ENCODING, headers);
+        return headers;
+    }
+
+    /**
+     * {@code 429} with the wait until the next permit in {@code Retry-After}.
+     */
+    protected static <T> ResponseEntity<T> tooManyRequests(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .build();
+    }
+
+    private static void copyUpstreamHeader(ApiStreamEnvelope envelope, String name, HttpHeaders headers) {
+        HttpUtils.header(envelope.headers(), name).ifPresent(value -> headers.set(name, value));
+    }
+
+    private String writeEnvelope(ApiStreamEnvelope envelope) {
+        try {
+            return envelopeWriter.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response envelope", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A check run against an execution's response.
+ * <p>
+ * {@code target} is the header name for {@code HEADER} and a JSONPath ({@code $.items[0].id}) or JSON
+ * Pointer ({@code /items/0/id}) for {@code BODY}; {@code STATUS} and {@code LATENCY} (response time in
+ * milliseconds) take none. {@code expected} is compared numerically when both sides are numbers, as text
+ * otherwise; {@code MATCHES} takes a regular expression that must match the whole value, and
+ * {@code EXISTS} and {@code NOT_EXISTS} take no {@code expected}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ApiAssertion(
+        Type type,
+
+        String target,
+
+        Operator operator,
+
+        String expected
+) {
+
+    public enum Type {
+        STATUS,
+        HEADER,
+        LATENCY,
+        BODY
+    }
+
+    public enum Operator {
+        EQUALS,
+        NOT_EQUALS,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        CONTAINS,
+        MATCHES,
+        EXISTS,
+        NOT_EXISTS
+    }
+}
@@ -5,8 +5,14 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
+import java.util.List;
 import java.util.Map;
 
+/**
+ * An HTTP request to execute. {@code assertions} are checked against the response; with
+ * {@code includeBody} set to {@code false} the response body is left out, for callers that only need
+ * the assertion results.
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record ApiRequest(
         @NotBlank(message = "HTTP method is required")
@@ -27,5 +33,11 @@ public record ApiRequest(
 
         Integer timeoutMs,
 
-        Boolean followRedirects
+        Boolean followRedirects,
+
+        Boolean bypassCache,
+
+        List<ApiAssertion> assertions,
+
+        Boolean includeBody
 ) { }
@@ -0,0 +1,20 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BatchExecutionRequest(
+        @NotEmpty(message = "At least one request is required")
+        List<@Valid ApiRequest> requests,
+
+        @Positive(message = "Concurrency must be positive")
+        Integer concurrency,
+
+        @Positive(message = "Per-host concurrency must be positive")
+        Integer perHostConcurrency
+) { }
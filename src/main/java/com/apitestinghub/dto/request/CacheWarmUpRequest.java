@@ -0,0 +1,39 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Requests to pre-populate the caches with, typically replayed after a deploy.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CacheWarmUpRequest(
+        @NotEmpty(message = "At least one request is required")
+        List<@Valid ApiRequest> requests,
+
+        Set<Operation> operations,
+
+        @Positive(message = "Parallelism must be positive")
+        Integer parallelism
+) {
+
+    /**
+     * What to warm for each request. Defaults to both.
+     * <ul>
+     *   <li>{@code EXECUTE}: run GET and HEAD requests to fill the HTTP response cache; other methods are skipped
+     *   so warm-up never causes side effects upstream</li>
+     *   <li>{@code DESCRIPTION}: generate the AI description</li>
+     * </ul>
+     * Documentation and analysis prompts embed response timing, so their answers could never be hit again
+     * and are not offered.
+     */
+    public enum Operation {
+        EXECUTE,
+        DESCRIPTION
+    }
+}
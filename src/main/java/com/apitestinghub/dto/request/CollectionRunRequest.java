@@ -0,0 +1,27 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A collection to run. {@code variables} are the initial values; steps run as soon as the steps they
+ * depend on have finished, within the concurrency limits.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CollectionRunRequest(
+        @NotEmpty(message = "At least one step is required")
+        List<@Valid CollectionStep> steps,
+
+        Map<String, String> variables,
+
+        @Positive(message = "Concurrency must be positive")
+        Integer concurrency,
+
+        @Positive(message = "Per-host concurrency must be positive")
+        Integer perHostConcurrency
+) { }
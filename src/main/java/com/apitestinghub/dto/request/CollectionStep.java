@@ -0,0 +1,49 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * One request of a collection. Its url, headers, query parameters and body may use {@code {{variable}}}
+ * placeholders; {@code extract} turns values of its response into variables for later steps.
+ * {@code dependsOn} lists step ids to wait for beyond those implied by variables.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CollectionStep(
+        @NotBlank(message = "Step id is required")
+        String id,
+
+        @NotNull(message = "Step request is required")
+        @Valid
+        ApiRequest request,
+
+        List<@Valid Extraction> extract,
+
+        List<String> dependsOn
+) {
+
+    /**
+     * Stores a response value as {@code variable}: the status, the header named by {@code path}, or the
+     * body value at the JSONPath or JSON Pointer {@code path}.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Extraction(
+            @NotBlank(message = "Variable name is required")
+            String variable,
+
+            @NotNull(message = "Extraction source is required")
+            Source source,
+
+            String path
+    ) { }
+
+    public enum Source {
+        STATUS,
+        HEADER,
+        BODY
+    }
+}
@@ -0,0 +1,37 @@
+package com.apitestinghub.dto.request;
+
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * Two executions to compare. Each side is given inline, or by the {@code requestId} of an execution in the
+ * {@code sessionId}'s history; with {@code replayBaseline} the candidate is a fresh execution of the
+ * baseline's recorded request.
+ * <p>
+ * {@code ignorePaths} are body paths such as {@code $.meta.timestamp}, {@code $.items[*].id} or
+ * {@code $..requestId}; {@code ignoreHeaders} are added to the configured volatile headers.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ExecutionDiffRequest(
+        ApiExecutionResponse baseline,
+
+        ApiExecutionResponse candidate,
+
+        String sessionId,
+
+        String baselineRequestId,
+
+        String candidateRequestId,
+
+        Boolean replayBaseline,
+
+        List<String> ignorePaths,
+
+        List<String> ignoreHeaders,
+
+        @Positive(message = "Max differences must be positive")
+        Integer maxDifferences
+) { }
@@ -0,0 +1,30 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Load test of a single request. Exactly one of {@code targetRps} (open model)
+ * or {@code concurrency} (closed model) must be set.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record LoadTestRequest(
+        @NotNull(message = "Request is required")
+        @Valid ApiRequest request,
+
+        @Positive(message = "Target RPS must be positive")
+        Integer targetRps,
+
+        @Positive(message = "Concurrency must be positive")
+        Integer concurrency,
+
+        @NotNull(message = "Duration is required")
+        @Positive(message = "Duration must be positive")
+        Integer durationSeconds,
+
+        @PositiveOrZero(message = "Warm-up must not be negative")
+        Integer warmUpSeconds
+) { }
@@ -0,0 +1,22 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * A request to execute every {@code intervalSeconds}. Responses below 400 count as available.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MonitorRequest(
+        @NotNull(message = "Request is required")
+        @Valid
+        ApiRequest request,
+
+        @NotNull(message = "Interval is required")
+        @Positive(message = "Interval must be positive")
+        Integer intervalSeconds,
+
+        String name
+) { }
@@ -0,0 +1,13 @@
+package com.apitestinghub.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UrlValidationBatchRequest(
+        @NotEmpty(message = "At least one URL is required")
+        List<@NotBlank(message = "URL is required") String> urls
+) { }
@@ -0,0 +1,12 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One server-sent event payload of a streamed AI answer.
+ * Content is JSON-encoded so deltas containing line breaks survive SSE framing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AiStreamChunk(
+    String content
+) { }
@@ -1,8 +1,10 @@
 package com.apitestinghub.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -14,5 +16,10 @@ public record ApiExecutionResponse(
     long responseTimeMs,
     LocalDateTime timestamp,
     String requestId,
-    boolean success
+    boolean success,
+    ExecutionTimings timings,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    SpilledBody spilledBody,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<AssertionResult> assertions
 ) { }
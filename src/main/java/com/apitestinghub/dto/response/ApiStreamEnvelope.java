@@ -0,0 +1,23 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Upstream metadata returned alongside a streamed response body.
+ * <p>
+ * {@code responseTimeMs} is measured up to the arrival of the upstream headers,
+ * since the body is still in flight when the envelope is sent.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ApiStreamEnvelope(
+    int statusCode,
+    String statusText,
+    Map<String, String> headers,
+    long responseTimeMs,
+    LocalDateTime timestamp,
+    String requestId,
+    boolean success
+) { }
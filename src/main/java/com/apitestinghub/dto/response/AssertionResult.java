@@ -0,0 +1,18 @@
+package com.apitestinghub.dto.response;
+
+import com.apitestinghub.dto.request.ApiAssertion;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one {@link ApiAssertion}. {@code actual} is the value compared, or for a failed body path
+ * matching several values the first one that failed; {@code message} explains a failure.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AssertionResult(
+    ApiAssertion assertion,
+    boolean passed,
+    String actual,
+    String message
+) { }
@@ -0,0 +1,16 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One streamed batch item. {@code index} is the position of the request in the submitted batch,
+ * since results are emitted in completion order.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchExecutionResult(
+    int index,
+    ApiExecutionResponse response,
+    String error
+) { }
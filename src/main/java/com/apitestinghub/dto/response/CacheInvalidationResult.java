@@ -0,0 +1,12 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Outcome of a cache invalidation.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CacheInvalidationResult(
+    String name,
+    int invalidated
+) { }
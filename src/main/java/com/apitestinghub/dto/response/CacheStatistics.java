@@ -0,0 +1,30 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Snapshot of one cache's size and counters since startup.
+ * <p>
+ * Weights are approximate bytes. Load figures only apply to caches that compute missing entries
+ * themselves; {@code diskEntryCount} is only present for caches with a disk tier.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CacheStatistics(
+    String name,
+    long entryCount,
+    Long weightedSize,
+    Long maximumWeight,
+    long requestCount,
+    long hitCount,
+    double hitRate,
+    long missCount,
+    double missRate,
+    long loadSuccessCount,
+    long loadFailureCount,
+    double averageLoadPenaltyMillis,
+    long evictionCount,
+    long evictionWeight,
+    Integer diskEntryCount
+) { }
@@ -0,0 +1,29 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background cache warm-up. Each request counts once: as failed if any of its operations failed, otherwise as succeeded.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CacheWarmUpJob(
+    String id,
+    State state,
+    int total,
+    int succeeded,
+    int failed,
+    int parallelism,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+}
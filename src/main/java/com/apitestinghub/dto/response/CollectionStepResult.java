@@ -0,0 +1,29 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One streamed collection step, in completion order. {@code index} is the step's position in the
+ * submitted collection. A step {@code FAILED} when it could not be executed or a variable could not be
+ * extracted, and is {@code SKIPPED} when a step it depends on did not succeed.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CollectionStepResult(
+    int index,
+    String stepId,
+    Status status,
+    ApiExecutionResponse response,
+    Map<String, String> extracted,
+    String error
+) {
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED
+    }
+}
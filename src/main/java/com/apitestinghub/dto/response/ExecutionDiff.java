@@ -0,0 +1,40 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Differences between a baseline and a candidate execution, in status, header and body order.
+ * {@code truncated} is set when the comparison stopped at the difference limit.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExecutionDiff(
+    String baselineRequestId,
+    String candidateRequestId,
+    boolean identical,
+    boolean truncated,
+    List<Difference> differences
+) {
+
+    /**
+     * One difference. {@code path} is the header name for headers and a JSON path for bodies;
+     * {@code before} and {@code after} are short renderings, absent on the side that lacks the value.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Difference(Section section, Kind kind, String path, String before, String after) { }
+
+    public enum Section {
+        STATUS,
+        HEADER,
+        BODY
+    }
+
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+}
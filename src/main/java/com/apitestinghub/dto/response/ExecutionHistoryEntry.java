@@ -0,0 +1,13 @@
+package com.apitestinghub.dto.response;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A recorded execution: the request as it was sent and the response it got.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ExecutionHistoryEntry(
+    ApiRequest request,
+    ApiExecutionResponse response
+) { }
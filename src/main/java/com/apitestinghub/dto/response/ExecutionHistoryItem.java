@@ -0,0 +1,22 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of a recorded execution. {@code responseBodyBytes} is the body size in UTF-8, and
+ * {@code storedBytes} what the request and response take in the history after compression.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ExecutionHistoryItem(
+    String requestId,
+    String method,
+    String url,
+    int statusCode,
+    boolean success,
+    long responseTimeMs,
+    LocalDateTime timestamp,
+    int responseBodyBytes,
+    int storedBytes
+) { }
@@ -0,0 +1,25 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Per-phase timing breakdown of an executed request, in nanoseconds.
+ * <p>
+ * DNS, connect and TLS phases are only present when a new connection was opened;
+ * {@code connectionAcquireNanos} covers everything before the request write started,
+ * including time spent waiting for a pooled connection.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExecutionTimings(
+    Long dnsResolutionNanos,
+    Long tcpConnectNanos,
+    Long tlsHandshakeNanos,
+    Long connectionAcquireNanos,
+    Long requestWriteNanos,
+    Long timeToFirstByteNanos,
+    Long downloadNanos,
+    long totalNanos,
+    boolean connectionReused
+) { }
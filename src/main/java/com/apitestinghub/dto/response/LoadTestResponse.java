@@ -0,0 +1,24 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Map;
+
+/**
+ * Result of a load test. Only requests scheduled after the warm-up period are counted.
+ * <p>
+ * In open-model runs latency is measured from the intended send time, so queueing
+ * caused by a slow target is part of the reported latency.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record LoadTestResponse(
+    String mode,
+    long totalRequests,
+    long successfulRequests,
+    long failedRequests,
+    long droppedRequests,
+    double durationSeconds,
+    double throughputRps,
+    LatencySummary latency,
+    Map<String, Long> errors
+) { }
@@ -0,0 +1,31 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * A registered monitor with its lifetime counters and rolling window. {@code skippedRuns} counts runs
+ * dropped because too many monitors were executing at once.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonitorStatus(
+    String id,
+    String name,
+    String sessionId,
+    String method,
+    String url,
+    int intervalSeconds,
+    LocalDateTime createdAt,
+    LocalDateTime lastRunAt,
+    LocalDateTime nextRunAt,
+    Integer lastStatusCode,
+    String lastError,
+    long totalRuns,
+    long failedRuns,
+    long skippedRuns,
+    int consecutiveFailures,
+    MonitorWindow window
+) { }
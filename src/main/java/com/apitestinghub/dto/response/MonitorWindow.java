@@ -0,0 +1,16 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Statistics over a monitor's most recent runs. {@code latency} covers runs that got a response and is
+ * {@code null} until one has.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonitorWindow(
+    int runs,
+    double availability,
+    LatencySummary latency
+) { }
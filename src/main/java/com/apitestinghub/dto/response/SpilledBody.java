@@ -0,0 +1,17 @@
+package com.apitestinghub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handle to a response body that was too large to return inline. The full body can be downloaded from
+ * {@code GET /requests/bodies/{id}} until {@code expiresAt}; the execution's {@code body} is only a preview.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SpilledBody(
+    String id,
+    long sizeBytes,
+    String contentType,
+    LocalDateTime expiresAt
+) { }
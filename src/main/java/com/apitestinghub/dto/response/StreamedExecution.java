@@ -0,0 +1,15 @@
+package com.apitestinghub.dto.response;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Result of a streaming execution: the envelope plus the not yet consumed upstream body.
+ * <p>
+ * The body must be subscribed exactly once and every emitted buffer released,
+ * otherwise the upstream connection is not returned to the pool.
+ */
+public record StreamedExecution(
+    ApiStreamEnvelope envelope,
+    Flux<DataBuffer> body
+) { }
@@ -0,0 +1,26 @@
+package com.apitestinghub.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends ApiRequestException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Whole seconds for the {@code Retry-After} header, rounded up and at least one.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
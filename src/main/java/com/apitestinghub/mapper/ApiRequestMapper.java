@@ -1,8 +1,11 @@
 package com.apitestinghub.mapper;
 
+import com.apitestinghub.dto.request.ApiAssertion;
 import com.apitestinghub.dto.request.ApiRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -18,7 +21,10 @@ public class ApiRequestMapper {
                 request.body(),
                 request.sessionId(),
                 request.timeoutMs() != null ? request.timeoutMs() : 30000,
-                request.followRedirects() != null ? request.followRedirects() : true
+                request.followRedirects() != null ? request.followRedirects() : true,
+                request.bypassCache() != null ? request.bypassCache() : false,
+                request.assertions() != null ? request.assertions() : List.of(),
+                request.includeBody() != null ? request.includeBody() : true
         );
     }
 
@@ -30,6 +36,14 @@ public class ApiRequestMapper {
         return request.followRedirects() != null ? request.followRedirects() : true;
     }
 
+    public List<ApiAssertion> getAssertions(ApiRequest request) {
+        return request.assertions() != null ? request.assertions() : List.of();
+    }
+
+    public boolean shouldIncludeBody(ApiRequest request) {
+        return request.includeBody() != null ? request.includeBody() : true;
+    }
+
     public Map<String, String> getHeaders(ApiRequest request) {
         return request.headers() != null ? request.headers() : Map.of();
     }
@@ -37,4 +51,13 @@ public class ApiRequestMapper {
     public Map<String, String> getQueryParams(ApiRequest request) {
         return request.queryParams() != null ? request.queryParams() : Map.of();
     }
+
+    public String buildUrl(ApiRequest request) {
+        Map<String, String> params = getQueryParams(request);
+        if (params.isEmpty()) return request.url();
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(request.url());
+        params.forEach(builder::queryParam);
+        return builder.toUriString();
+    }
 }
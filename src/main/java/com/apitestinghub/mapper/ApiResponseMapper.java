@@ -1,18 +1,26 @@
 package com.apitestinghub.mapper;
 
 import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.ApiStreamEnvelope;
+import com.apitestinghub.dto.response.AssertionResult;
+import com.apitestinghub.dto.response.ExecutionTimings;
+import com.apitestinghub.dto.response.SpilledBody;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 
 @Component
 public class ApiResponseMapper {
 
-    public ApiExecutionResponse mapFromResponseEntity(ResponseEntity<String> responseEntity, long responseTimeMs, String requestId) {
+    public ApiExecutionResponse mapFromResponseEntity(ResponseEntity<String> responseEntity,
+                                                      long responseTimeMs,
+                                                      ExecutionTimings timings,
+                                                      String requestId) {
         return new ApiExecutionResponse(
                 responseEntity.getStatusCode().value(),
                 responseEntity.getStatusCode().toString(),
@@ -21,12 +29,28 @@ public class ApiResponseMapper {
                 responseTimeMs,
                 LocalDateTime.now(),
                 requestId,
+                isSuccessStatusCode(responseEntity.getStatusCode().value()),
+                timings,
+                null,
+                null
+        );
+    }
+
+    public ApiStreamEnvelope mapToEnvelope(ResponseEntity<?> responseEntity, long responseTimeMs, String requestId) {
+        return new ApiStreamEnvelope(
+                responseEntity.getStatusCode().value(),
+                responseEntity.getStatusCode().toString(),
+                responseEntity.getHeaders().toSingleValueMap(),
+                responseTimeMs,
+                LocalDateTime.now(),
+                requestId,
                 isSuccessStatusCode(responseEntity.getStatusCode().value())
         );
     }
 
     public ApiExecutionResponse mapFromException(WebClientResponseException exception,
                                                  long responseTimeMs,
+                                                 ExecutionTimings timings,
                                                  String requestId) {
         return new ApiExecutionResponse(
                 exception.getStatusCode().value(),
@@ -36,7 +60,10 @@ public class ApiResponseMapper {
                 responseTimeMs,
                 LocalDateTime.now(),
                 requestId,
-                false
+                false,
+                timings,
+                null,
+                null
         );
     }
 
@@ -51,7 +78,10 @@ public class ApiResponseMapper {
                 responseTimeMs,
                 LocalDateTime.now(),
                 requestId,
-                false
+                false,
+                null,
+                null,
+                null
         );
     }
 
@@ -59,6 +89,78 @@ public class ApiResponseMapper {
         return statusCode >= 200 && statusCode < 300;
     }
 
+    public ApiExecutionResponse withRequestId(ApiExecutionResponse response, String requestId) {
+        if (requestId.equals(response.requestId())) return response;
+
+        return new ApiExecutionResponse(
+                response.statusCode(),
+                response.statusText(),
+                response.headers(),
+                response.body(),
+                response.responseTimeMs(),
+                response.timestamp(),
+                requestId,
+                response.success(),
+                response.timings(),
+                response.spilledBody(),
+                response.assertions()
+        );
+    }
+
+    /**
+     * Attach the handle of a spilled body.
+     */
+    public ApiExecutionResponse withSpilledBody(ApiExecutionResponse response, SpilledBody spilledBody) {
+        return new ApiExecutionResponse(
+                response.statusCode(),
+                response.statusText(),
+                response.headers(),
+                response.body(),
+                response.responseTimeMs(),
+                response.timestamp(),
+                response.requestId(),
+                response.success(),
+                response.timings(),
+                spilledBody,
+                response.assertions()
+        );
+    }
+
+    public ApiExecutionResponse withAssertions(ApiExecutionResponse response, List<AssertionResult> assertions) {
+        return new ApiExecutionResponse(
+                response.statusCode(),
+                response.statusText(),
+                response.headers(),
+                response.body(),
+                response.responseTimeMs(),
+                response.timestamp(),
+                response.requestId(),
+                response.success(),
+                response.timings(),
+                response.spilledBody(),
+                assertions
+        );
+    }
+
+    /**
+     * Drop the body, for callers that asked for status, headers and assertion results only.
+     */
+    public ApiExecutionResponse withoutBody(ApiExecutionResponse response) {
+        return new ApiExecutionResponse(
+                response.statusCode(),
+                response.statusText(),
+                response.headers(),
+                null,
+                response.responseTimeMs(),
+                response.timestamp(),
+                response.requestId(),
+                response.success(),
+                response.timings(),
+                response.spilledBody(),
+                response.assertions()
+        );
+    }
+
     public ApiExecutionResponse applyDefaults(ApiExecutionResponse response) {
         return new ApiExecutionResponse(
                 response.statusCode(),
@@ -68,7 +170,10 @@ public class ApiResponseMapper {
                 response.responseTimeMs(),
                 response.timestamp() != null ? response.timestamp() : LocalDateTime.now(),
                 response.requestId(),
-                response.success()
+                response.success(),
+                response.timings(),
+                response.spilledBody(),
+                response.assertions()
         );
     }
 }
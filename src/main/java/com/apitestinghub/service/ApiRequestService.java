@@ -2,22 +2,31 @@ package com.apitestinghub.service;
 
 import com.apitestinghub.dto.request.ApiRequest;
 import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.StreamedExecution;
 import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.exception.RateLimitExceededException;
 import com.apitestinghub.mapper.ApiRequestMapper;
 import com.apitestinghub.mapper.ApiResponseMapper;
+import com.apitestinghub.util.RequestTimingRecorder;
 import com.apitestinghub.util.RequestValidator;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for executing API requests and URL validation.
@@ -27,38 +36,138 @@ import java.util.UUID;
 @Service
 public class ApiRequestService {
 
+    private static final String CACHE_MISS = "miss";
+    private static final String CACHE_NONE = "none";
+
     private final WebClient webClient;
+    private final WebClient passthroughWebClient;
     private final RequestValidator validator;
     private final ApiRequestMapper requestMapper;
     private final ApiResponseMapper responseMapper;
+    private final HttpResponseCache responseCache;
+    private final RequestCoalescer coalescer;
+    private final ProxyMetrics metrics;
+    private final ExecutionRateLimiter rateLimiter;
+    private final ExecutionHistory history;
+    private final ResponseSpillStore spillStore;
+    private final AssertionEngine assertionEngine;
+    private final boolean encodingPassthrough;
 
     public ApiRequestService(@Qualifier("apiRequestWebClient") WebClient webClient,
+                             @Qualifier("apiRequestPassthroughWebClient") WebClient passthroughWebClient,
                              RequestValidator validator,
                              ApiRequestMapper requestMapper,
-                             ApiResponseMapper responseMapper) {
+                             ApiResponseMapper responseMapper,
+                             HttpResponseCache responseCache,
+                             RequestCoalescer coalescer,
+                             ProxyMetrics metrics,
+                             ExecutionRateLimiter rateLimiter,
+                             ExecutionHistory history,
+                             ResponseSpillStore spillStore,
+                             AssertionEngine assertionEngine,
+                             @Value("${app.request.stream.encoding-passthrough:true}") boolean encodingPassthrough) {
         this.webClient = webClient;
+        this.passthroughWebClient = passthroughWebClient;
         this.validator = validator;
         this.requestMapper = requestMapper;
         this.responseMapper = responseMapper;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.history = history;
+        this.spillStore = spillStore;
+        this.assertionEngine = assertionEngine;
+        this.encodingPassthrough = encodingPassthrough;
     }
 
     /**
      * Execute an API request and return the response.
+     * <p>
+     * Identical concurrent executions of coalescable methods share one upstream call;
+     * each caller still gets its own {@code requestId}. The request's assertions are checked by the
+     * {@link AssertionEngine}, and responses are recorded in the session's {@link ExecutionHistory}
+     * with their body even when the caller leaves it out.
+     *
+     * @throws ApiRequestException if the request or one of its assertions is invalid
+     * @throws RateLimitExceededException if the session or target host is over its rate limit
      */
     public Mono<ApiExecutionResponse> executeRequest(ApiRequest request) {
         validator.validateRequest(request);
+        AssertionEngine.CompiledAssertions assertions = assertionEngine.compile(requestMapper.getAssertions(request));
+        rateLimiter.acquire(request);
+
+        String requestId = UUID.randomUUID().toString();
+        String fullUrl = requestMapper.buildUrl(request);
+
+        Mono<ApiExecutionResponse> execution = coalescer.isCoalescable(request)
+                ? coalescer.execute(request, fullUrl, requestMapper.getHeaders(request),
+                                () -> executeUpstream(request, fullUrl, requestId))
+                        .map(response -> responseMapper.withRequestId(response, requestId))
+                : executeUpstream(request, fullUrl, requestId);
+        Mono<ApiExecutionResponse> checked = execution
+                .flatMap(response -> assertionEngine.evaluate(assertions, response))
+                .doOnNext(response -> history.record(request, response));
+        return requestMapper.shouldIncludeBody(request) ? checked : checked.map(responseMapper::withoutBody);
+    }
+
+    /**
+     * Execute an API request and stream the upstream body back as it arrives.
+     * <p>
+     * Unlike {@link #executeRequest(ApiRequest)} the body is never aggregated, so it is not
+     * subject to the in-memory codec limit. Error statuses are passed through rather than raised.
+     * <p>
+     * When the request does not set its own {@code Accept-Encoding}, the caller's is sent upstream and the
+     * body is relayed still encoded, with the upstream {@code Content-Encoding} in the envelope headers.
+     * This skips decompressing here and recompressing on the way out. Otherwise the body is decoded as
+     * in {@link #executeRequest(ApiRequest)}.
+     *
+     * @param acceptEncoding the caller's {@code Accept-Encoding}, or {@code null} to always decode
+     * @throws RateLimitExceededException if the session or target host is over its rate limit
+     */
+    public Mono<StreamedExecution> executeStreamingRequest(ApiRequest request, String acceptEncoding) {
+        validator.validateRequest(request);
+        rateLimiter.acquire(request);
 
         String requestId = UUID.randomUUID().toString();
-        String fullUrl = buildUrlWithParams(request);
+        String fullUrl = requestMapper.buildUrl(request);
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
-        return sendHttpRequest(request, fullUrl)
-                .map(response -> mapSuccessResponse(response, startTime, requestId))
-                .onErrorResume(WebClientResponseException.class,
-                        ex -> handleWebClientError(ex, startTime, requestId))
+        boolean passthrough = encodingPassthrough && StringUtils.hasText(acceptEncoding)
+                && !hasHeader(requestMapper.getHeaders(request), HttpHeaders.ACCEPT_ENCODING);
+        WebClient.RequestHeadersSpec<?> spec = passthrough
+                ? prepareHttpRequest(passthroughWebClient, request, fullUrl, acceptEncodingHeader(acceptEncoding))
+                : prepareHttpRequest(request, fullUrl);
+
+        return spec
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                // Streamed bodies are timed up to the response headers; the transfer is paced by the client
+                .doOnNext(entity -> metrics.record(fullUrl, request.method(), entity.getStatusCode().value(),
+                        CACHE_NONE, System.nanoTime() - startNanos))
+                .doOnError(ex -> metrics.record(fullUrl, request.method(), -1, CACHE_NONE,
+                        System.nanoTime() - startNanos))
+                .map(entity -> new StreamedExecution(
+                        responseMapper.mapToEnvelope(entity, System.currentTimeMillis() - startTime, requestId),
+                        entity.getBody()))
                 .onErrorResume(Exception.class, this::handleUnexpectedError);
     }
 
+    /**
+     * Validate the request once and return a reusable sender that only reports the upstream status.
+     * <p>
+     * The body is drained without being buffered, which keeps repeated sends such as load generation cheap.
+     */
+    public Supplier<Mono<Integer>> prepareStatusProbe(ApiRequest request) {
+        validator.validateRequest(request);
+
+        String fullUrl = requestMapper.buildUrl(request);
+        return () -> prepareHttpRequest(request, fullUrl)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
     /**
      * Validate if a URL is safe and accessible.
      */
@@ -77,35 +186,97 @@ public class ApiRequestService {
 
     // Private helper methods
 
-    private String buildUrlWithParams(ApiRequest request) {
-        Map<String, String> params = requestMapper.getQueryParams(request);
-        if (params.isEmpty()) return request.url();
+    private Mono<ApiExecutionResponse> executeUpstream(ApiRequest request, String fullUrl, String requestId) {
+        RequestTimingRecorder timings = new RequestTimingRecorder();
+        boolean cacheable = responseCache.isCacheable(request, requestMapper.getHeaders(request));
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(request.url());
-        params.forEach(builder::queryParam);
-        return builder.toUriString();
+        return sendHttpRequest(request, fullUrl, cacheable)
+                .map(response -> mapSuccessResponse(response, timings, requestId))
+                .onErrorResume(WebClientResponseException.class,
+                        ex -> handleWebClientError(ex, timings, requestId))
+                .doOnNext(response -> metrics.record(fullUrl, request.method(), response.statusCode(),
+                        cacheStatus(response, cacheable), timings.elapsedNanos()))
+                .doOnError(ex -> metrics.record(fullUrl, request.method(), -1,
+                        cacheable ? CACHE_MISS : CACHE_NONE, timings.elapsedNanos()))
+                .onErrorResume(Exception.class, this::handleUnexpectedError)
+                // Start timing on subscription rather than assembly, and expose the recorder to the connection hooks
+                .doOnSubscribe(subscription -> timings.start())
+                .contextWrite(context -> context.put(RequestTimingRecorder.CONTEXT_KEY, timings));
     }
 
-    private Mono<ResponseEntity<String>> sendHttpRequest(ApiRequest request, String url) {
-        return webClient.method(HttpMethod.valueOf(request.method().toUpperCase()))
+    private Mono<ResponseEntity<String>> sendHttpRequest(ApiRequest request, String url, boolean cacheable) {
+        if (!cacheable) {
+            return fetchHttpResponse(request, url, HttpHeaders.EMPTY);
+        }
+        return responseCache.execute(request, url, requestMapper.getHeaders(request),
+                conditionalHeaders -> fetchHttpResponse(request, url, conditionalHeaders));
+    }
+
+    private Mono<ResponseEntity<String>> fetchHttpResponse(ApiRequest request, String url, HttpHeaders extraHeaders) {
+        // Error statuses raise WebClientResponseException as retrieve() would; other bodies may spill to disk
+        return prepareHttpRequest(request, url, extraHeaders)
+                .exchangeToMono(response -> response.statusCode().isError()
+                        ? response.createError()
+                        : spillStore.readEntity(response));
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepareHttpRequest(ApiRequest request, String url) {
+        return prepareHttpRequest(request, url, HttpHeaders.EMPTY);
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepareHttpRequest(ApiRequest request, String url, HttpHeaders extraHeaders) {
+        return prepareHttpRequest(webClient, request, url, extraHeaders);
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepareHttpRequest(WebClient client, ApiRequest request, String url,
+                                                               HttpHeaders extraHeaders) {
+        return client.method(HttpMethod.valueOf(request.method().toUpperCase()))
                 .uri(url)
-                .headers(headers -> requestMapper.getHeaders(request).forEach(headers::add))
-                .bodyValue(request.body() != null ? request.body() : "")
-                .retrieve()
-                .toEntity(String.class);
+                .headers(headers -> {
+                    requestMapper.getHeaders(request).forEach(headers::add);
+                    headers.putAll(extraHeaders);
+                })
+                .bodyValue(request.body() != null ? request.body() : "");
+    }
+
+    private static HttpHeaders acceptEncodingHeader(String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return headers;
+    }
+
+    private static boolean hasHeader(Map<String, String> headers, String name) {
+        return headers.keySet().stream().anyMatch(name::equalsIgnoreCase);
     }
 
-    private ApiExecutionResponse mapSuccessResponse(ResponseEntity<String> response, long startTime, String requestId) {
-        long duration = System.currentTimeMillis() - startTime;
-        return responseMapper.mapFromResponseEntity(response, duration, requestId);
+    private ApiExecutionResponse mapSuccessResponse(ResponseEntity<String> response,
+                                                    RequestTimingRecorder timings,
+                                                    String requestId) {
+        ApiExecutionResponse mapped =
+                responseMapper.mapFromResponseEntity(response, timings.elapsedMillis(), timings.snapshot(), requestId);
+        return response instanceof ResponseSpillStore.SpilledResponseEntity spilled
+                ? responseMapper.withSpilledBody(mapped, spillStore.describe(spilled.spillId()).orElse(null))
+                : mapped;
     }
 
-    private Mono<ApiExecutionResponse> handleWebClientError(WebClientResponseException ex, long startTime, String requestId) {
-        long duration = System.currentTimeMillis() - startTime;
-        return Mono.just(responseMapper.mapFromException(ex, duration, requestId));
+    private Mono<ApiExecutionResponse> handleWebClientError(WebClientResponseException ex,
+                                                           RequestTimingRecorder timings,
+                                                           String requestId) {
+        return Mono.just(responseMapper.mapFromException(ex, timings.elapsedMillis(), timings.snapshot(), requestId));
     }
 
-    private Mono<ApiExecutionResponse> handleUnexpectedError(Throwable ex) {
+    private static String cacheStatus(ApiExecutionResponse response, boolean cacheable) {
+        String status = response.headers().get(HttpResponseCache.CACHE_STATUS_HEADER);
+        if (status != null) {
+            return status.toLowerCase(Locale.ROOT);
+        }
+        return cacheable ? CACHE_MISS : CACHE_NONE;
+    }
+
+    private <T> Mono<T> handleUnexpectedError(Throwable ex) {
+        if (ex instanceof ApiRequestException) {
+            return Mono.error(ex);
+        }
         return Mono.error(new ApiRequestException(
                 "Request failed: " + ex.getMessage(),
                 HttpStatus.INTERNAL_SERVER_ERROR
@@ -0,0 +1,361 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiAssertion;
+import com.apitestinghub.dto.request.ApiAssertion.Operator;
+import com.apitestinghub.dto.request.ApiAssertion.Type;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.AssertionResult;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.mapper.ApiResponseMapper;
+import com.apitestinghub.util.BoundedCharSequence;
+import com.apitestinghub.util.HttpUtils;
+import com.apitestinghub.util.JsonPathPattern;
+import com.apitestinghub.util.StreamingJsonSelector;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Checks {@link ApiAssertion}s against execution responses.
+ * <p>
+ * Assertions are compiled once, with their path, expected number and pattern parsed, and cached by their
+ * text. Body assertions share one {@link StreamingJsonSelector} pass over the body, which skips subtrees no
+ * path can reach and stops once every definite path is found. Spilled bodies are read from their file.
+ * Patterns are user supplied, so each match may read at most {@code max-match-steps} characters before it
+ * fails. Responses with body or pattern assertions are evaluated on the bounded-elastic scheduler, never on
+ * the event loop.
+ */
+@Service
+public class AssertionEngine {
+
+    private final JsonFactory jsonFactory;
+    private final ResponseSpillStore spillStore;
+    private final ApiResponseMapper responseMapper;
+    private final Cache<ApiAssertion, CompiledAssertion> compiled;
+    private final int maxPerRequest;
+    private final long maxMatchSteps;
+
+    public AssertionEngine(ObjectMapper objectMapper,
+                           ResponseSpillStore spillStore,
+                           ApiResponseMapper responseMapper,
+                           @Value("${app.request.assertions.max-per-request:100}") int maxPerRequest,
+                           @Value("${app.request.assertions.compiled-cache-size:10000}") long compiledCacheSize,
+                           @Value("${app.request.assertions.max-match-steps:1000000}") long maxMatchSteps) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.spillStore = spillStore;
+        this.responseMapper = responseMapper;
+        this.maxPerRequest = maxPerRequest;
+        this.maxMatchSteps = maxMatchSteps;
+        this.compiled = Caffeine.newBuilder()
+                .maximumSize(compiledCacheSize)
+                .build();
+    }
+
+    /**
+     * Compile a request's assertions, reusing earlier compilations of the same text.
+     *
+     * @throws ApiRequestException if there are too many assertions or one is invalid
+     */
+    public CompiledAssertions compile(List<ApiAssertion> assertions) {
+        if (assertions.size() > maxPerRequest) {
+            throw new ApiRequestException("At most " + maxPerRequest + " assertions are allowed per request");
+        }
+        List<CompiledAssertion> result = new ArrayList<>(assertions.size());
+        for (ApiAssertion assertion : assertions) {
+            if (assertion == null) {
+                throw new ApiRequestException("Assertions must not be null");
+            }
+            try {
+                result.add(compiled.get(assertion, a -> CompiledAssertion.compile(a, maxMatchSteps)));
+            } catch (IllegalArgumentException e) {
+                throw new ApiRequestException("Invalid assertion " + describe(assertion) + ": " + e.getMessage());
+            }
+        }
+        return new CompiledAssertions(List.copyOf(result));
+    }
+
+    /**
+     * Attach the results of {@code assertions} to the response; a response is returned as is when
+     * there are none.
+     */
+    public Mono<ApiExecutionResponse> evaluate(CompiledAssertions assertions, ApiExecutionResponse response) {
+        if (assertions.isEmpty()) {
+            return Mono.just(response);
+        }
+        if (!assertions.isBlocking()) {
+            return Mono.just(responseMapper.withAssertions(response, check(assertions, response)));
+        }
+        return Mono.fromCallable(() -> responseMapper.withAssertions(response, check(assertions, response)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Assertions of one request, in request order.
+     */
+    public static final class CompiledAssertions {
+
+        private final List<CompiledAssertion> assertions;
+        private final boolean blocking;
+
+        private CompiledAssertions(List<CompiledAssertion> assertions) {
+            this.assertions = assertions;
+            this.blocking = assertions.stream()
+                    .anyMatch(assertion -> assertion.path() != null || assertion.pattern() != null);
+        }
+
+        public boolean isEmpty() {
+            return assertions.isEmpty();
+        }
+
+        /**
+         * Whether checking may read the body or run a pattern, and so must stay off the event loop.
+         */
+        boolean isBlocking() {
+            return blocking;
+        }
+    }
+
+    // Private helper methods
+
+    private List<AssertionResult> check(CompiledAssertions compiledAssertions, ApiExecutionResponse response) {
+        List<CompiledAssertion> assertions = compiledAssertions.assertions;
+        AssertionResult[] results = new AssertionResult[assertions.size()];
+        List<Integer> bodyAssertions = new ArrayList<>();
+        for (int i = 0; i < assertions.size(); i++) {
+            CompiledAssertion assertion = assertions.get(i);
+            switch (assertion.source().type()) {
+                case STATUS -> results[i] = assertion.check(String.valueOf(response.statusCode()),
+                        BigDecimal.valueOf(response.statusCode()));
+                case LATENCY -> results[i] = assertion.check(String.valueOf(response.responseTimeMs()),
+                        BigDecimal.valueOf(response.responseTimeMs()));
+                case HEADER -> results[i] = HttpUtils.header(response.headers(), assertion.source().target())
+                        .map(value -> assertion.check(value, number(value)))
+                        .orElseGet(assertion::missing);
+                case BODY -> bodyAssertions.add(i);
+            }
+        }
+        if (!bodyAssertions.isEmpty()) {
+            checkBody(assertions, bodyAssertions, response, results);
+        }
+        return List.of(results);
+    }
+
+    private void checkBody(List<CompiledAssertion> assertions, List<Integer> indexes, ApiExecutionResponse response,
+                           AssertionResult[] results) {
+        List<JsonPathPattern> paths = indexes.stream().map(i -> assertions.get(i).path()).toList();
+        BodyMatches[] matches = new BodyMatches[indexes.size()];
+        Arrays.setAll(matches, k -> new BodyMatches(assertions.get(indexes.get(k))));
+
+        try (JsonParser parser = spillStore.bodyParser(jsonFactory, response)) {
+            StreamingJsonSelector.select(parser, paths, (k, p) -> matches[k].add(p));
+        } catch (JsonProcessingException e) {
+            String message = "Body is not valid JSON: " + e.getOriginalMessage();
+            indexes.forEach(i -> results[i] = new AssertionResult(assertions.get(i).source(), false, null, message));
+            return;
+        } catch (IOException e) {
+            String message = "Body could not be read: " + e.getMessage();
+            indexes.forEach(i -> results[i] = new AssertionResult(assertions.get(i).source(), false, null, message));
+            return;
+        }
+        for (int k = 0; k < indexes.size(); k++) {
+            results[indexes.get(k)] = matches[k].result();
+        }
+    }
+
+    private static BigDecimal number(String text) {
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String describe(ApiAssertion assertion) {
+        return assertion.target() != null
+                ? assertion.type() + " " + assertion.target() + " " + assertion.operator()
+                : assertion.type() + " " + assertion.operator();
+    }
+
+    /**
+     * Values found at a body path. Paths selecting several values pass only if every value does.
+     */
+    private static final class BodyMatches {
+
+        private final CompiledAssertion assertion;
+        private int count;
+        private String firstActual;
+        private AssertionResult failure;
+
+        BodyMatches(CompiledAssertion assertion) {
+            this.assertion = assertion;
+        }
+
+        void add(JsonParser parser) throws IOException {
+            count++;
+            if (failure != null) {
+                return;
+            }
+            JsonToken token = parser.currentToken();
+            AssertionResult result = switch (token) {
+                case START_OBJECT -> assertion.checkContainer("{...}", "an object");
+                case START_ARRAY -> assertion.checkContainer("[...]", "an array");
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> assertion.check(parser.getText(), parser.getDecimalValue());
+                case VALUE_STRING -> assertion.check(parser.getText(), null);
+                default -> assertion.check(token.asString(), null);
+            };
+            if (firstActual == null) {
+                firstActual = result.actual();
+            }
+            if (!result.passed()) {
+                failure = result;
+            }
+        }
+
+        AssertionResult result() {
+            if (count == 0) {
+                return assertion.missing();
+            }
+            if (failure != null) {
+                return failure;
+            }
+            return new AssertionResult(assertion.source(), true, firstActual, null);
+        }
+    }
+
+    /**
+     * An assertion with its body path, expected number and pattern parsed.
+     */
+    private record CompiledAssertion(ApiAssertion source, JsonPathPattern path, BigDecimal expectedNumber,
+                                     Pattern pattern, long maxMatchSteps) {
+
+        static CompiledAssertion compile(ApiAssertion assertion, long maxMatchSteps) {
+            Type type = assertion.type();
+            Operator operator = assertion.operator();
+            if (type == null) {
+                throw new IllegalArgumentException("type is required");
+            }
+            if (operator == null) {
+                throw new IllegalArgumentException("operator is required");
+            }
+            String target = assertion.target();
+            if ((type == Type.HEADER || type == Type.BODY) && target == null) {
+                throw new IllegalArgumentException("target is required");
+            }
+            String expected = assertion.expected();
+            boolean presenceOnly = operator == Operator.EXISTS || operator == Operator.NOT_EXISTS;
+            if (!presenceOnly && expected == null) {
+                throw new IllegalArgumentException("expected is required");
+            }
+
+            JsonPathPattern path = null;
+            if (type == Type.BODY) {
+                String expression = target.trim();
+                path = expression.isEmpty() || expression.startsWith("/")
+                        ? JsonPathPattern.compilePointer(expression)
+                        : JsonPathPattern.compile(expression);
+            }
+            BigDecimal expectedNumber = expected != null ? number(expected) : null;
+            if (isOrdering(operator) && expectedNumber == null) {
+                throw new IllegalArgumentException("expected must be a number");
+            }
+            Pattern pattern = null;
+            if (operator == Operator.MATCHES) {
+                try {
+                    pattern = Pattern.compile(expected);
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("invalid pattern: " + e.getDescription());
+                }
+            }
+            return new CompiledAssertion(assertion, path, expectedNumber, pattern, maxMatchSteps);
+        }
+
+        /**
+         * Check a present value; {@code number} is its numeric value, or {@code null} if not a number.
+         */
+        AssertionResult check(String actual, BigDecimal number) {
+            String failure = switch (source.operator()) {
+                case EXISTS -> null;
+                case NOT_EXISTS -> "Expected no value";
+                case EQUALS -> isEqual(actual, number) ? null : "Expected " + source.expected();
+                case NOT_EQUALS -> isEqual(actual, number) ? "Expected a value other than " + source.expected() : null;
+                case LESS_THAN, LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL -> compareNumber(number);
+                case CONTAINS -> actual.contains(source.expected()) ? null : "Expected to contain " + source.expected();
+                case MATCHES -> matches(actual);
+            };
+            return new AssertionResult(source, failure == null, actual, failure);
+        }
+
+        private String matches(String actual) {
+            try {
+                return pattern.matcher(new BoundedCharSequence(actual, maxMatchSteps)).matches()
+                        ? null : "Expected to match " + source.expected();
+            } catch (BoundedCharSequence.BudgetExceededException e) {
+                return "Pattern took too long to evaluate";
+            }
+        }
+
+        AssertionResult checkContainer(String actual, String kind) {
+            return switch (source.operator()) {
+                case EXISTS -> new AssertionResult(source, true, actual, null);
+                case NOT_EXISTS -> new AssertionResult(source, false, actual, "Expected no value");
+                default -> new AssertionResult(source, false, actual, "Expected a single value, found " + kind);
+            };
+        }
+
+        AssertionResult missing() {
+            boolean passed = source.operator() == Operator.NOT_EXISTS;
+            return new AssertionResult(source, passed, null, passed ? null : "No value found");
+        }
+
+        private boolean isEqual(String actual, BigDecimal number) {
+            if (expectedNumber != null && number != null) {
+                return number.compareTo(expectedNumber) == 0;
+            }
+            return source.expected().equals(actual);
+        }
+
+        private String compareNumber(BigDecimal number) {
+            if (number == null) {
+                return "Expected a number";
+            }
+            int comparison = number.compareTo(expectedNumber);
+            boolean passed = switch (source.operator()) {
+                case LESS_THAN -> comparison < 0;
+                case LESS_THAN_OR_EQUAL -> comparison <= 0;
+                case GREATER_THAN -> comparison > 0;
+                default -> comparison >= 0;
+            };
+            return passed ? null : "Expected " + symbol(source.operator()) + " " + source.expected();
+        }
+
+        private static boolean isOrdering(Operator operator) {
+            return operator == Operator.LESS_THAN || operator == Operator.LESS_THAN_OR_EQUAL
+                    || operator == Operator.GREATER_THAN || operator == Operator.GREATER_THAN_OR_EQUAL;
+        }
+
+        private static String symbol(Operator operator) {
+            return switch (operator) {
+                case LESS_THAN -> "<";
+                case LESS_THAN_OR_EQUAL -> "<=";
+                case GREATER_THAN -> ">";
+                default -> ">=";
+            };
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.BatchExecutionRequest;
+import com.apitestinghub.dto.response.BatchExecutionResult;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.util.HttpUtils;
+import com.apitestinghub.util.KeyedConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Service for executing a batch of API requests with bounded concurrency.
+ * <p>
+ * Limits apply per batch and per target host, and results are emitted as they complete.
+ */
+@Service
+public class BatchExecutionService {
+
+    private final ApiRequestService apiRequestService;
+
+    @Value("${app.request.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.request.batch.max-concurrency:20}")
+    private int maxConcurrency;
+
+    @Value("${app.request.batch.max-per-host-concurrency:6}")
+    private int maxPerHostConcurrency;
+
+    public BatchExecutionService(ApiRequestService apiRequestService) {
+        this.apiRequestService = apiRequestService;
+    }
+
+    /**
+     * Execute all requests in the batch. Requested limits are capped by the configured maximums.
+     */
+    public Flux<BatchExecutionResult> executeBatch(BatchExecutionRequest batch) {
+        List<ApiRequest> requests = batch.requests();
+        if (requests.size() > maxBatchSize) {
+            throw new ApiRequestException("Batch size " + requests.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        int concurrency = capped(batch.concurrency(), maxConcurrency);
+        KeyedConcurrencyLimiter hostLimiter = new KeyedConcurrencyLimiter(
+                capped(batch.perHostConcurrency(), maxPerHostConcurrency));
+
+        return Flux.fromStream(IntStream.range(0, requests.size()).boxed())
+                .flatMap(index -> hostLimiter.limit(HttpUtils.hostOf(requests.get(index).url()),
+                        () -> executeItem(index, requests.get(index))), concurrency);
+    }
+
+    // Private helper methods
+
+    private Mono<BatchExecutionResult> executeItem(int index, ApiRequest request) {
+        return Mono.defer(() -> apiRequestService.executeRequest(request))
+                // Batch items wait for the session's rate limit instead of failing
+                .retryWhen(ExecutionRateLimiter.waitForPermit())
+                .map(response -> new BatchExecutionResult(index, response, null))
+                .onErrorResume(ex -> Mono.just(new BatchExecutionResult(index, null, ex.getMessage())));
+    }
+
+    private int capped(Integer requested, int max) {
+        return requested != null ? Math.min(requested, max) : max;
+    }
+}
@@ -0,0 +1,260 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.CacheWarmUpRequest;
+import com.apitestinghub.dto.request.CacheWarmUpRequest.Operation;
+import com.apitestinghub.dto.response.CacheInvalidationResult;
+import com.apitestinghub.dto.response.CacheStatistics;
+import com.apitestinghub.dto.response.CacheWarmUpJob;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.service.ai.AiResultCache;
+import com.apitestinghub.service.ai.AiResultDiskStore;
+import com.apitestinghub.service.ai.DocumentationService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Statistics, invalidation and warm-up for the AI result and HTTP response caches, plus statistics and
+ * invalidation for URL validations.
+ * <p>
+ * Warm-up jobs run in the background with bounded parallelism. Only one runs at a time,
+ * and the most recent jobs are kept so their progress can be polled.
+ */
+@Service
+public class CacheAdminService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheAdminService.class);
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD");
+    private static final int RETAINED_JOBS = 20;
+
+    private final AsyncCache<String, String> aiResultCacheStore;
+    private final Cache<HttpResponseCache.Key, HttpResponseCache.Entry> httpResponseCacheStore;
+    private final AiResultCache aiResultCache;
+    private final AiResultDiskStore aiResultDiskStore;
+    private final HttpResponseCache httpResponseCache;
+    private final ApiRequestService apiRequestService;
+    private final DocumentationService documentationService;
+    private final AsyncCache<String, Boolean> urlValidationCacheStore;
+    private final UrlValidationService urlValidationService;
+
+    @Value("${app.admin.warm-up.max-requests:1000}")
+    private int maxWarmUpRequests;
+
+    @Value("${app.admin.warm-up.max-parallelism:4}")
+    private int maxWarmUpParallelism;
+
+    // Guarded by itself
+    private final Map<String, WarmUpJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, WarmUpJob> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+
+    public CacheAdminService(AsyncCache<String, String> aiResultCacheStore,
+                             Cache<HttpResponseCache.Key, HttpResponseCache.Entry> httpResponseCacheStore,
+                             AiResultCache aiResultCache,
+                             AiResultDiskStore aiResultDiskStore,
+                             HttpResponseCache httpResponseCache,
+                             ApiRequestService apiRequestService,
+                             DocumentationService documentationService,
+                             AsyncCache<String, Boolean> urlValidationCacheStore,
+                             UrlValidationService urlValidationService) {
+        this.aiResultCacheStore = aiResultCacheStore;
+        this.httpResponseCacheStore = httpResponseCacheStore;
+        this.aiResultCache = aiResultCache;
+        this.aiResultDiskStore = aiResultDiskStore;
+        this.httpResponseCache = httpResponseCache;
+        this.apiRequestService = apiRequestService;
+        this.documentationService = documentationService;
+        this.urlValidationCacheStore = urlValidationCacheStore;
+        this.urlValidationService = urlValidationService;
+    }
+
+    public List<CacheStatistics> statistics() {
+        return List.of(
+                statistics(AiResultCache.NAME, aiResultCacheStore.synchronous(),
+                        aiResultDiskStore.isEnabled() ? aiResultDiskStore.entryCount() : null),
+                statistics(HttpResponseCache.NAME, httpResponseCacheStore, null),
+                statistics(UrlValidationService.NAME, urlValidationCacheStore.synchronous(), null));
+    }
+
+    public Optional<CacheStatistics> statistics(String name) {
+        return statistics().stream().filter(stats -> stats.name().equals(name)).findFirst();
+    }
+
+    /**
+     * Invalidate entries of one cache; see {@link AiResultCache#invalidate}, {@link HttpResponseCache#invalidate}
+     * and {@link UrlValidationService#invalidate} for how {@code url} and {@code prefix} match.
+     */
+    public CacheInvalidationResult invalidate(String name, String url, String prefix) {
+        int invalidated = switch (name) {
+            case AiResultCache.NAME -> aiResultCache.invalidate(url, prefix);
+            case HttpResponseCache.NAME -> httpResponseCache.invalidate(url, prefix);
+            case UrlValidationService.NAME -> urlValidationService.invalidate(url, prefix);
+            default -> throw new ApiRequestException("Unknown cache: " + name, HttpStatus.NOT_FOUND);
+        };
+        logger.info("Invalidated {} entries of {} (url={}, prefix={})", invalidated, name, url, prefix);
+        return new CacheInvalidationResult(name, invalidated);
+    }
+
+    /**
+     * Start warming the caches in the background and return the job's initial state.
+     */
+    public CacheWarmUpJob startWarmUp(CacheWarmUpRequest request) {
+        if (request.requests().size() > maxWarmUpRequests) {
+            throw new ApiRequestException("Warm-up is limited to " + maxWarmUpRequests + " requests");
+        }
+        Set<Operation> operations = request.operations() == null || request.operations().isEmpty()
+                ? EnumSet.allOf(Operation.class)
+                : EnumSet.copyOf(request.operations());
+        int parallelism = Math.min(request.parallelism() != null ? request.parallelism() : maxWarmUpParallelism,
+                maxWarmUpParallelism);
+
+        WarmUpJob job;
+        synchronized (jobs) {
+            if (jobs.values().stream().anyMatch(running -> running.state == CacheWarmUpJob.State.RUNNING)) {
+                throw new ApiRequestException("A cache warm-up is already running", HttpStatus.CONFLICT);
+            }
+            job = new WarmUpJob(request.requests().size(), parallelism);
+            jobs.put(job.id, job);
+        }
+
+        logger.info("Starting cache warm-up {} for {} requests ({}) with parallelism {}",
+                job.id, job.total, operations, parallelism);
+        long startNanos = System.nanoTime();
+        job.subscription = Flux.fromIterable(request.requests())
+                .flatMap(apiRequest -> warmUp(apiRequest, operations, job), parallelism)
+                .doFinally(signal -> {
+                    job.finish(signal == SignalType.CANCEL
+                            ? CacheWarmUpJob.State.CANCELLED : CacheWarmUpJob.State.COMPLETED);
+                    logger.info("Cache warm-up {} {}: {} succeeded, {} failed in {}ms", job.id,
+                            job.state.name().toLowerCase(Locale.ROOT), job.succeeded.get(), job.failed.get(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                })
+                .subscribe();
+        return job.snapshot();
+    }
+
+    public Optional<CacheWarmUpJob> warmUpJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id)).map(WarmUpJob::snapshot);
+        }
+    }
+
+    /**
+     * Stop a running warm-up; requests already in flight are abandoned.
+     */
+    public Optional<CacheWarmUpJob> cancelWarmUp(String id) {
+        WarmUpJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            return Optional.empty();
+        }
+        Disposable subscription = job.subscription;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        return Optional.of(job.snapshot());
+    }
+
+    private Mono<Void> warmUp(ApiRequest request, Set<Operation> operations, WarmUpJob job) {
+        boolean execute = operations.contains(Operation.EXECUTE)
+                && SAFE_METHODS.contains(request.method().toUpperCase(Locale.ROOT));
+
+        Mono<Void> executed = execute
+                ? Mono.defer(() -> apiRequestService.executeRequest(request))
+                        .retryWhen(ExecutionRateLimiter.waitForPermit())
+                        .then()
+                : Mono.empty();
+        Mono<Void> described = operations.contains(Operation.DESCRIPTION)
+                ? Mono.defer(() -> documentationService.prefetchApiDescription(request)).then()
+                : Mono.empty();
+
+        return executed.then(described)
+                .doOnSuccess(ignored -> job.succeeded.incrementAndGet())
+                .onErrorResume(error -> {
+                    job.failed.incrementAndGet();
+                    logger.debug("Cache warm-up {} failed for {} {}: {}",
+                            job.id, request.method(), request.url(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static <K, V> CacheStatistics statistics(String name, Cache<K, V> cache, Integer diskEntries) {
+        CacheStats stats = cache.stats();
+        Optional<Policy.Eviction<K, V>> weighted = cache.policy().eviction().filter(Policy.Eviction::isWeighted);
+        Long weightedSize = weighted.map(policy -> policy.weightedSize().orElse(0L)).orElse(null);
+        Long maximumWeight = weighted.map(Policy.Eviction::getMaximum).orElse(null);
+
+        return new CacheStatistics(
+                name,
+                cache.estimatedSize(),
+                weightedSize,
+                maximumWeight,
+                stats.requestCount(),
+                stats.hitCount(),
+                stats.hitRate(),
+                stats.missCount(),
+                stats.missRate(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                stats.averageLoadPenalty() / 1_000_000.0,
+                stats.evictionCount(),
+                stats.evictionWeight(),
+                diskEntries);
+    }
+
+    private static final class WarmUpJob {
+        private final String id = UUID.randomUUID().toString();
+        private final int total;
+        private final int parallelism;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile CacheWarmUpJob.State state = CacheWarmUpJob.State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile Disposable subscription;
+
+        private WarmUpJob(int total, int parallelism) {
+            this.total = total;
+            this.parallelism = parallelism;
+        }
+
+        private void finish(CacheWarmUpJob.State finalState) {
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        private CacheWarmUpJob snapshot() {
+            return new CacheWarmUpJob(id, state, total, succeeded.get(), failed.get(), parallelism,
+                    startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.CollectionRunRequest;
+import com.apitestinghub.dto.request.CollectionStep;
+import com.apitestinghub.dto.request.CollectionStep.Extraction;
+import com.apitestinghub.dto.request.CollectionStep.Source;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.CollectionStepResult;
+import com.apitestinghub.dto.response.CollectionStepResult.Status;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.mapper.ApiRequestMapper;
+import com.apitestinghub.mapper.ApiResponseMapper;
+import com.apitestinghub.util.HttpUtils;
+import com.apitestinghub.util.JsonPathPattern;
+import com.apitestinghub.util.KeyedConcurrencyLimiter;
+import com.apitestinghub.util.StreamingJsonSelector;
+import com.apitestinghub.util.VariableTemplate;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs collections: requests with {@code {{variable}}} placeholders whose responses feed later steps.
+ * <p>
+ * The collection is planned before anything is sent. A step depends on the steps extracting the variables
+ * it uses and on its explicit {@code dependsOn}; undefined variables and cycles are rejected. Steps then
+ * run as soon as their last dependency finishes, within a per-run and per-host concurrency limit as in
+ * {@link BatchExecutionService}, and results are emitted as they complete. Steps after a failed one are
+ * skipped. Templates are parsed once per run and rendered per step.
+ */
+@Service
+public class CollectionRunService {
+
+    private final ApiRequestService apiRequestService;
+    private final ApiRequestMapper requestMapper;
+    private final ApiResponseMapper responseMapper;
+    private final ResponseSpillStore spillStore;
+    private final JsonFactory jsonFactory;
+
+    @Value("${app.request.collection.max-steps:1000}")
+    private int maxSteps;
+
+    @Value("${app.request.collection.max-concurrency:20}")
+    private int maxConcurrency;
+
+    @Value("${app.request.collection.max-per-host-concurrency:6}")
+    private int maxPerHostConcurrency;
+
+    public CollectionRunService(ApiRequestService apiRequestService,
+                                ApiRequestMapper requestMapper,
+                                ApiResponseMapper responseMapper,
+                                ResponseSpillStore spillStore,
+                                ObjectMapper objectMapper) {
+        this.apiRequestService = apiRequestService;
+        this.requestMapper = requestMapper;
+        this.responseMapper = responseMapper;
+        this.spillStore = spillStore;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Plan and run a collection. Requested limits are capped by the configured maximums.
+     *
+     * @throws ApiRequestException if step ids repeat, a variable is undefined, has no value or is extracted
+     *                             by two steps, an extraction is invalid, or the dependencies form a cycle
+     */
+    public Flux<CollectionStepResult> run(CollectionRunRequest collection) {
+        if (collection.steps().size() > maxSteps) {
+            throw new ApiRequestException("Collection size " + collection.steps().size()
+                    + " exceeds the maximum of " + maxSteps);
+        }
+        List<PlannedStep> plan = plan(collection);
+        Map<String, String> variables = collection.variables() != null ? collection.variables() : Map.of();
+        int concurrency = capped(collection.concurrency(), maxConcurrency);
+        int perHostConcurrency = capped(collection.perHostConcurrency(), maxPerHostConcurrency);
+
+        return Flux.defer(() -> new Run(plan, variables, new KeyedConcurrencyLimiter(perHostConcurrency))
+                .results(concurrency));
+    }
+
+    // Private helper methods
+
+    private List<PlannedStep> plan(CollectionRunRequest collection) {
+        List<CollectionStep> steps = collection.steps();
+        Map<String, String> variables = collection.variables() != null ? collection.variables() : Map.of();
+        variables.forEach((name, value) -> {
+            if (value == null) {
+                throw new ApiRequestException("Variable '" + name + "' has no value");
+            }
+        });
+        Set<String> initialVariables = variables.keySet();
+
+        Map<String, Integer> indexById = new HashMap<>();
+        Map<String, Integer> producers = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            CollectionStep step = steps.get(i);
+            if (indexById.putIfAbsent(step.id(), i) != null) {
+                throw new ApiRequestException("Duplicate step id '" + step.id() + "'");
+            }
+            for (Extraction extraction : extractions(step)) {
+                Integer other = producers.putIfAbsent(extraction.variable(), i);
+                if (other != null) {
+                    throw new ApiRequestException("Variable '" + extraction.variable() + "' is extracted by both '"
+                            + steps.get(other).id() + "' and '" + step.id() + "'");
+                }
+            }
+        }
+
+        List<PlannedStep> plan = new ArrayList<>(steps.size());
+        List<List<Integer>> dependents = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            CollectionStep step = steps.get(i);
+            RequestTemplate template = RequestTemplate.compile(step.request());
+            Set<Integer> dependencies = new LinkedHashSet<>();
+            for (String variable : template.variables()) {
+                Integer producer = producers.get(variable);
+                if (producer == null) {
+                    if (!initialVariables.contains(variable)) {
+                        throw new ApiRequestException("Step '" + step.id() + "' uses undefined variable {{"
+                                + variable + "}}");
+                    }
+                } else if (producer == i) {
+                    throw new ApiRequestException("Step '" + step.id() + "' uses {{" + variable
+                            + "}}, which it extracts itself");
+                } else {
+                    dependencies.add(producer);
+                }
+            }
+            if (step.dependsOn() != null) {
+                for (String id : step.dependsOn()) {
+                    Integer dependency = indexById.get(id);
+                    if (dependency == null || dependency == i) {
+                        throw new ApiRequestException("Step '" + step.id() + "' depends on unknown step '"
+                                + id + "'");
+                    }
+                    dependencies.add(dependency);
+                }
+            }
+            for (int dependency : dependencies) {
+                dependents.get(dependency).add(i);
+            }
+            plan.add(new PlannedStep(i, step, template, compileExtractions(step), dependencies.size(),
+                    dependents.get(i)));
+        }
+        checkAcyclic(plan);
+        return plan;
+    }
+
+    private static void checkAcyclic(List<PlannedStep> plan) {
+        int[] pending = new int[plan.size()];
+        Deque<PlannedStep> ready = new ArrayDeque<>();
+        for (PlannedStep step : plan) {
+            pending[step.index()] = step.dependencyCount();
+            if (step.dependencyCount() == 0) {
+                ready.add(step);
+            }
+        }
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            ordered++;
+            for (int dependent : ready.poll().dependents()) {
+                if (--pending[dependent] == 0) {
+                    ready.add(plan.get(dependent));
+                }
+            }
+        }
+        if (ordered < plan.size()) {
+            String cycle = plan.stream()
+                    .filter(step -> pending[step.index()] > 0)
+                    .limit(10)
+                    .map(step -> step.source().id())
+                    .collect(Collectors.joining(", "));
+            throw new ApiRequestException("Steps depend on each other in a cycle: " + cycle);
+        }
+    }
+
+    private static List<Extraction> extractions(CollectionStep step) {
+        return step.extract() != null ? step.extract() : List.of();
+    }
+
+    private static List<CompiledExtraction> compileExtractions(CollectionStep step) {
+        List<CompiledExtraction> compiled = new ArrayList<>();
+        for (Extraction extraction : extractions(step)) {
+            if (extraction.source() != Source.STATUS && extraction.path() == null) {
+                throw new ApiRequestException("Extraction of '" + extraction.variable() + "' in step '"
+                        + step.id() + "' needs a path");
+            }
+            JsonPathPattern bodyPath = null;
+            if (extraction.source() == Source.BODY) {
+                String path = extraction.path().trim();
+                try {
+                    bodyPath = path.isEmpty() || path.startsWith("/")
+                            ? JsonPathPattern.compilePointer(path)
+                            : JsonPathPattern.compile(path);
+                } catch (IllegalArgumentException e) {
+                    throw new ApiRequestException("Invalid extraction path in step '" + step.id() + "': "
+                            + e.getMessage());
+                }
+            }
+            compiled.add(new CompiledExtraction(extraction, bodyPath));
+        }
+        return compiled;
+    }
+
+    private CollectionStepResult extract(PlannedStep step, ApiExecutionResponse response,
+                                         Map<String, String> variables) {
+        Map<String, String> extracted = new LinkedHashMap<>();
+        List<CompiledExtraction> fromBody = new ArrayList<>();
+        for (CompiledExtraction extraction : step.extractions()) {
+            Extraction source = extraction.source();
+            switch (source.source()) {
+                case STATUS -> extracted.put(source.variable(), String.valueOf(response.statusCode()));
+                case HEADER -> HttpUtils.header(response.headers(), source.path())
+                        .ifPresent(value -> extracted.put(source.variable(), value));
+                case BODY -> fromBody.add(extraction);
+            }
+        }
+
+        String error = null;
+        if (!fromBody.isEmpty()) {
+            try {
+                extractBody(fromBody, response, extracted);
+            } catch (JsonProcessingException e) {
+                error = "Body is not valid JSON: " + e.getOriginalMessage();
+            } catch (IOException e) {
+                error = "Body could not be read: " + e.getMessage();
+            }
+        }
+        if (error == null) {
+            error = step.extractions().stream()
+                    .filter(extraction -> !extracted.containsKey(extraction.source().variable()))
+                    .findFirst()
+                    .map(extraction -> "No value for {{" + extraction.source().variable() + "}} at "
+                            + extraction.source().source() + " " + extraction.source().path())
+                    .orElse(null);
+        }
+
+        ApiExecutionResponse visible = requestMapper.shouldIncludeBody(step.source().request())
+                ? response
+                : responseMapper.withoutBody(response);
+        if (error != null) {
+            return new CollectionStepResult(step.index(), step.source().id(), Status.FAILED, visible,
+                    extracted.isEmpty() ? null : extracted, error);
+        }
+        variables.putAll(extracted);
+        return new CollectionStepResult(step.index(), step.source().id(), Status.SUCCEEDED, visible,
+                extracted.isEmpty() ? null : extracted, null);
+    }
+
+    /**
+     * Extract the first scalar value found at each body path in one pass.
+     */
+    private void extractBody(List<CompiledExtraction> extractions, ApiExecutionResponse response,
+                             Map<String, String> extracted) throws IOException {
+        List<JsonPathPattern> paths = extractions.stream().map(CompiledExtraction::bodyPath).toList();
+        try (JsonParser parser = spillStore.bodyParser(jsonFactory, response)) {
+            StreamingJsonSelector.select(parser, paths, (k, p) -> {
+                String variable = extractions.get(k).source().variable();
+                JsonToken token = p.currentToken();
+                if (!extracted.containsKey(variable) && token.isScalarValue()) {
+                    extracted.put(variable, token == JsonToken.VALUE_STRING || token.isNumeric()
+                            ? p.getText()
+                            : token.asString());
+                }
+            });
+        }
+    }
+
+    private int capped(Integer requested, int max) {
+        return requested != null ? Math.min(requested, max) : max;
+    }
+
+    /**
+     * State of one run. Steps are fed to a {@code flatMap} through a sink as they become ready; completions
+     * are handled in {@code flatMap}'s serialized output, so the counters need no locking.
+     */
+    private final class Run {
+
+        private final List<PlannedStep> plan;
+        private final Map<String, String> variables;
+        private final KeyedConcurrencyLimiter hostLimiter;
+        private final int[] pending;
+        private final String[] failedDependency;
+        private final Sinks.Many<PlannedStep> ready = Sinks.many().unicast().onBackpressureBuffer();
+        private int finished;
+
+        Run(List<PlannedStep> plan, Map<String, String> initialVariables, KeyedConcurrencyLimiter hostLimiter) {
+            this.plan = plan;
+            this.variables = new ConcurrentHashMap<>(initialVariables);
+            this.hostLimiter = hostLimiter;
+            this.pending = new int[plan.size()];
+            this.failedDependency = new String[plan.size()];
+            for (PlannedStep step : plan) {
+                pending[step.index()] = step.dependencyCount();
+            }
+        }
+
+        Flux<CollectionStepResult> results(int concurrency) {
+            plan.stream().filter(step -> step.dependencyCount() == 0).forEach(this::emit);
+            return ready.asFlux()
+                    .flatMap(this::runStep, concurrency)
+                    .doOnNext(this::finish);
+        }
+
+        private Mono<CollectionStepResult> runStep(PlannedStep step) {
+            String failed = failedDependency[step.index()];
+            if (failed != null) {
+                return Mono.just(new CollectionStepResult(step.index(), step.source().id(), Status.SKIPPED, null,
+                        null, "Dependency '" + failed + "' did not succeed"));
+            }
+            ApiRequest request;
+            try {
+                request = step.template().render(step.source().request(), variables::get, step.readsBody());
+            } catch (RuntimeException e) {
+                return Mono.just(failed(step, e));
+            }
+            Mono<CollectionStepResult> execution = Mono.defer(() -> apiRequestService.executeRequest(request))
+                    // Steps wait for the session's rate limit instead of failing
+                    .retryWhen(ExecutionRateLimiter.waitForPermit())
+                    .flatMap(response -> extractOnce(step, response));
+            return hostLimiter.limit(HttpUtils.hostOf(request.url()), () -> execution)
+                    .onErrorResume(ex -> Mono.just(failed(step, ex)));
+        }
+
+        private Mono<CollectionStepResult> extractOnce(PlannedStep step, ApiExecutionResponse response) {
+            Mono<CollectionStepResult> extraction = Mono.fromCallable(() -> extract(step, response, variables));
+            // Spilled bodies are read from disk
+            return step.readsBody() ? extraction.subscribeOn(Schedulers.boundedElastic()) : extraction;
+        }
+
+        private void finish(CollectionStepResult result) {
+            PlannedStep step = plan.get(result.index());
+            for (int dependent : step.dependents()) {
+                if (result.status() != Status.SUCCEEDED && failedDependency[dependent] == null) {
+                    failedDependency[dependent] = step.source().id();
+                }
+                if (--pending[dependent] == 0) {
+                    emit(plan.get(dependent));
+                }
+            }
+            if (++finished == plan.size()) {
+                ready.tryEmitComplete();
+            }
+        }
+
+        private void emit(PlannedStep step) {
+            ready.tryEmitNext(step).orThrow();
+        }
+
+        private CollectionStepResult failed(PlannedStep step, Throwable ex) {
+            return new CollectionStepResult(step.index(), step.source().id(), Status.FAILED, null, null,
+                    ex.getMessage());
+        }
+    }
+
+    private record PlannedStep(int index, CollectionStep source, RequestTemplate template,
+                               List<CompiledExtraction> extractions, int dependencyCount, List<Integer> dependents) {
+
+        boolean readsBody() {
+            return extractions.stream().anyMatch(extraction -> extraction.bodyPath() != null);
+        }
+    }
+
+    private record CompiledExtraction(Extraction source, JsonPathPattern bodyPath) { }
+
+    /**
+     * The templated parts of a step's request: url, header and query parameter values, and body.
+     */
+    private record RequestTemplate(VariableTemplate url, Map<String, VariableTemplate> headers,
+                                   Map<String, VariableTemplate> queryParams, VariableTemplate body) {
+
+        static RequestTemplate compile(ApiRequest request) {
+            return new RequestTemplate(VariableTemplate.compile(request.url()), compile(request.headers()),
+                    compile(request.queryParams()), VariableTemplate.compile(request.body()));
+        }
+
+        Set<String> variables() {
+            Set<String> variables = new LinkedHashSet<>(url.variables());
+            Stream.concat(headers.values().stream(), queryParams.values().stream())
+                    .filter(Objects::nonNull)
+                    .forEach(value -> variables.addAll(value.variables()));
+            if (body != null) {
+                variables.addAll(body.variables());
+            }
+            return variables;
+        }
+
+        /**
+         * @param keepBody whether the response body must be returned for extraction, whatever the request asks
+         */
+        ApiRequest render(ApiRequest request, Function<String, String> values, boolean keepBody) {
+            return new ApiRequest(request.method(), url.render(values), render(headers, values),
+                    render(queryParams, values), body != null ? body.render(values) : null, request.sessionId(),
+                    request.timeoutMs(), request.followRedirects(), request.bypassCache(), request.assertions(),
+                    keepBody ? Boolean.TRUE : request.includeBody());
+        }
+
+        private static Map<String, VariableTemplate> compile(Map<String, String> values) {
+            Map<String, VariableTemplate> compiled = new LinkedHashMap<>();
+            if (values != null) {
+                values.forEach((name, value) -> compiled.put(name, VariableTemplate.compile(value)));
+            }
+            return compiled;
+        }
+
+        private static Map<String, String> render(Map<String, VariableTemplate> templates,
+                                                  Function<String, String> values) {
+            Map<String, String> rendered = new LinkedHashMap<>();
+            templates.forEach((name, template) ->
+                    rendered.put(name, template != null ? template.render(values) : null));
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.ExecutionDiffRequest;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.ExecutionDiff;
+import com.apitestinghub.dto.response.ExecutionDiff.Difference;
+import com.apitestinghub.dto.response.ExecutionDiff.Kind;
+import com.apitestinghub.dto.response.ExecutionDiff.Section;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.util.JsonPathPattern;
+import com.apitestinghub.util.StreamingJsonDiff;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Compares a candidate execution against a baseline: status, headers and body.
+ * <p>
+ * JSON bodies get a structural diff from {@link StreamingJsonDiff}, and recorded bodies are inflated
+ * while they are read, so large payloads are never held as trees. Other bodies are compared as text
+ * and reported at their first difference. Comparison runs on the bounded-elastic scheduler.
+ */
+@Service
+public class ExecutionDiffService {
+
+    private static final int TEXT_SNIPPET_LENGTH = 80;
+
+    private final JsonFactory jsonFactory;
+    private final ExecutionHistory history;
+    private final ApiRequestService apiRequestService;
+    private final ResponseSpillStore spillStore;
+    private final Set<String> volatileHeaders;
+
+    @Value("${app.request.diff.max-differences:1000}")
+    private int maxDifferences;
+
+    public ExecutionDiffService(ObjectMapper objectMapper,
+                                ExecutionHistory history,
+                                ApiRequestService apiRequestService,
+                                ResponseSpillStore spillStore,
+                                @Value("${app.request.diff.ignored-headers:Date,Age,Expires,X-Cache}") String ignoredHeaders) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.history = history;
+        this.apiRequestService = apiRequestService;
+        this.spillStore = spillStore;
+        this.volatileHeaders = caseInsensitive(Arrays.asList(ignoredHeaders.split(",")));
+    }
+
+    public Mono<ExecutionDiff> diff(ExecutionDiffRequest request) {
+        List<JsonPathPattern> ignoredPaths = compile(request.ignorePaths());
+        Set<String> ignoredHeaders = caseInsensitive(request.ignoreHeaders());
+        ignoredHeaders.addAll(volatileHeaders);
+        int limit = request.maxDifferences() != null ? Math.min(request.maxDifferences(), maxDifferences) : maxDifferences;
+
+        Side baseline = resolve(request.baseline(), request.sessionId(), request.baselineRequestId(), "baseline");
+        Mono<Side> candidate = Boolean.TRUE.equals(request.replayBaseline())
+                ? Mono.defer(() -> apiRequestService.executeRequest(recordedRequest(request))).map(this::side)
+                : Mono.fromSupplier(() -> resolve(request.candidate(), request.sessionId(),
+                        request.candidateRequestId(), "candidate"));
+
+        return candidate
+                .publishOn(Schedulers.boundedElastic())
+                .map(after -> compare(baseline, after, ignoredPaths, ignoredHeaders, limit));
+    }
+
+    // Private helper methods
+
+    private ExecutionDiff compare(Side before, Side after, List<JsonPathPattern> ignoredPaths,
+                                  Set<String> ignoredHeaders, int limit) {
+        List<Difference> differences = new ArrayList<>();
+        if (before.status() != after.status()) {
+            differences.add(new Difference(Section.STATUS, Kind.CHANGED, null,
+                    String.valueOf(before.status()), String.valueOf(after.status())));
+        }
+        compareHeaders(before.headers(), after.headers(), ignoredHeaders, differences);
+
+        boolean truncated = differences.size() > limit;
+        if (truncated) {
+            differences = differences.subList(0, limit);
+        } else {
+            truncated = compareBodies(before, after, ignoredPaths, limit - differences.size(), differences);
+        }
+        return new ExecutionDiff(before.requestId(), after.requestId(), differences.isEmpty(), truncated,
+                List.copyOf(differences));
+    }
+
+    private static void compareHeaders(Map<String, String> before, Map<String, String> after,
+                                       Set<String> ignored, List<Difference> out) {
+        Map<String, String> a = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, String> b = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (before != null) {
+            a.putAll(before);
+        }
+        if (after != null) {
+            b.putAll(after);
+        }
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.addAll(a.keySet());
+        names.addAll(b.keySet());
+        for (String name : names) {
+            if (ignored.contains(name)) {
+                continue;
+            }
+            String x = a.get(name);
+            String y = b.get(name);
+            if (x == null) {
+                out.add(new Difference(Section.HEADER, Kind.ADDED, name, null, y));
+            } else if (y == null) {
+                out.add(new Difference(Section.HEADER, Kind.REMOVED, name, x, null));
+            } else if (!x.equals(y)) {
+                out.add(new Difference(Section.HEADER, Kind.CHANGED, name, x, y));
+            }
+        }
+    }
+
+    /**
+     * @return whether the body comparison stopped at the limit
+     */
+    private boolean compareBodies(Side before, Side after, List<JsonPathPattern> ignoredPaths, int limit,
+                                  List<Difference> out) {
+        try (Reader a = before.body().get(); Reader b = after.body().get()) {
+            StreamingJsonDiff.Result result = new StreamingJsonDiff(jsonFactory, ignoredPaths, limit).diff(a, b);
+            result.changes().forEach(change -> out.add(new Difference(Section.BODY,
+                    Kind.valueOf(change.kind().name()), change.path(), change.before(), change.after())));
+            return result.truncated();
+        } catch (IOException notJson) {
+            // Not JSON on at least one side, so start over as text
+        }
+        if (limit > 0) {
+            try (Reader a = new BufferedReader(before.body().get()); Reader b = new BufferedReader(after.body().get())) {
+                Difference difference = compareText(a, b);
+                if (difference != null) {
+                    out.add(difference);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return false;
+    }
+
+    private static Difference compareText(Reader a, Reader b) throws IOException {
+        long offset = 0;
+        int x;
+        int y;
+        do {
+            x = a.read();
+            y = b.read();
+            if (x != y) {
+                String prefix = offset > 0 ? "..." : "";
+                return new Difference(Section.BODY, Kind.CHANGED, "$",
+                        x < 0 ? null : prefix + snippet(x, a), y < 0 ? null : prefix + snippet(y, b));
+            }
+            offset++;
+        } while (x >= 0);
+        return null;
+    }
+
+    private static String snippet(int first, Reader rest) throws IOException {
+        StringBuilder out = new StringBuilder(TEXT_SNIPPET_LENGTH).append((char) first);
+        for (int c = rest.read(); c >= 0 && out.length() < TEXT_SNIPPET_LENGTH; c = rest.read()) {
+            out.append((char) c);
+        }
+        return out.toString();
+    }
+
+    private Side resolve(ApiExecutionResponse inline, String sessionId, String requestId, String role) {
+        if (inline != null) {
+            return side(inline);
+        }
+        if (requestId == null || sessionId == null) {
+            throw new ApiRequestException("The " + role + " needs a response, or a requestId and sessionId");
+        }
+        return history.findResponse(sessionId, requestId)
+                .map(recorded -> side(recorded.withoutBody(), recorded.body()))
+                .orElseThrow(() -> new ApiRequestException("No execution " + requestId + " in the session's history",
+                        HttpStatus.NOT_FOUND));
+    }
+
+    private ApiRequest recordedRequest(ExecutionDiffRequest request) {
+        if (request.baselineRequestId() == null || request.sessionId() == null) {
+            throw new ApiRequestException("Replaying the baseline needs its requestId and sessionId");
+        }
+        return history.findRequest(request.sessionId(), request.baselineRequestId())
+                // The replayed body is compared, so keep it even if the original caller left it out
+                .map(r -> new ApiRequest(r.method(), r.url(), r.headers(), r.queryParams(), r.body(), r.sessionId(),
+                        r.timeoutMs(), r.followRedirects(), r.bypassCache(), r.assertions(), true))
+                .orElseThrow(() -> new ApiRequestException("No execution " + request.baselineRequestId()
+                        + " in the session's history", HttpStatus.NOT_FOUND));
+    }
+
+    private static List<JsonPathPattern> compile(List<String> paths) {
+        if (paths == null) {
+            return List.of();
+        }
+        try {
+            return paths.stream().map(JsonPathPattern::compile).toList();
+        } catch (IllegalArgumentException e) {
+            throw new ApiRequestException("Invalid ignore path: " + e.getMessage());
+        }
+    }
+
+    private static Set<String> caseInsensitive(List<String> names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (names != null) {
+            names.stream().map(String::trim).filter(name -> !name.isEmpty()).forEach(set::add);
+        }
+        return set;
+    }
+
+    private Side side(ApiExecutionResponse response) {
+        String body = response.body() != null ? response.body() : "";
+        return side(response, () -> new StringReader(body));
+    }
+
+    /**
+     * Spilled bodies are compared in full from their file while it is still available, rather than by preview.
+     */
+    private Side side(ApiExecutionResponse response, Supplier<Reader> body) {
+        Optional<ResponseSpillStore.SpilledFile> spilled = response.spilledBody() != null
+                ? spillStore.find(response.spilledBody().id())
+                : Optional.empty();
+        if (spilled.isEmpty()) {
+            return new Side(response.requestId(), response.statusCode(), response.headers(), body);
+        }
+        ResponseSpillStore.SpilledFile file = spilled.get();
+        return new Side(response.requestId(), response.statusCode(), response.headers(), () -> {
+            try {
+                return Files.newBufferedReader(file.path(), file.charset());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private record Side(String requestId, int status, Map<String, String> headers, Supplier<Reader> body) { }
+}
@@ -0,0 +1,334 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.ExecutionHistoryEntry;
+import com.apitestinghub.dto.response.ExecutionHistoryItem;
+import com.apitestinghub.util.CompressedText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Recent executions per session, so clients can list, fetch and replay them by {@code requestId}
+ * instead of keeping and re-sending full bodies.
+ * <p>
+ * Each session keeps a ring buffer of its last executions, and all sessions share one byte budget:
+ * beyond it the oldest executions of the least recently active sessions are dropped first. An execution
+ * is visible as soon as it is recorded; its bodies are compressed afterwards, off the response path.
+ * Credential headers and URL user info are masked in everything returned except the request to replay.
+ */
+@Component
+public class ExecutionHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionHistory.class);
+
+    // Rough per-execution overhead of the records, maps and strings besides the bodies
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+    private static final String MASK = "***";
+    private static final Pattern URL_USER_INFO = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]*://)[^/?#@]*@");
+
+    private final boolean enabled;
+    private final int maxEntriesPerSession;
+    private final long maxBytes;
+    private final Set<String> maskedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    // Guarded by this; access ordered so the least recently active session comes first
+    private final LinkedHashMap<String, Deque<Execution>> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Execution> byRequestId = new HashMap<>();
+    private long totalBytes;
+
+    public ExecutionHistory(@Value("${app.request.history.enabled:true}") boolean enabled,
+                            @Value("${app.request.history.max-entries-per-session:50}") int maxEntriesPerSession,
+                            @Value("${app.request.history.max-size:64MB}") DataSize maxSize,
+                            @Value("${app.request.history.masked-headers:Authorization,Proxy-Authorization,Cookie,Set-Cookie,X-Api-Key}")
+                            String maskedHeaders) {
+        this.enabled = enabled;
+        this.maxEntriesPerSession = maxEntriesPerSession;
+        this.maxBytes = maxSize.toBytes();
+        Arrays.stream(maskedHeaders.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(this.maskedHeaders::add);
+    }
+
+    /**
+     * Record an execution. It can be looked up once this returns, so a client may use the {@code requestId}
+     * right after the response; the bodies are compressed in the background.
+     */
+    public void record(ApiRequest request, ApiExecutionResponse response) {
+        if (!enabled || response.requestId() == null) {
+            return;
+        }
+        Execution execution;
+        boolean stored;
+        try {
+            execution = Execution.of(request, response, CompressedText::plain);
+            // An execution over budget may still fit once compressed, so it is only stored afterwards
+            stored = execution.weight <= maxBytes && store(execution);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record execution {}: {}", response.requestId(), e.getMessage());
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                Execution compressed = Execution.of(request, response, CompressedText::of);
+                if (stored) {
+                    compress(execution, compressed);
+                } else {
+                    store(compressed);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not compress execution {}: {}", response.requestId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Executions of a session, newest first.
+     */
+    public synchronized List<ExecutionHistoryItem> list(String sessionId) {
+        Deque<Execution> executions = sessions.get(sessionId);
+        if (executions == null) {
+            return List.of();
+        }
+        List<ExecutionHistoryItem> items = new ArrayList<>(executions.size());
+        executions.descendingIterator().forEachRemaining(execution ->
+                items.add(execution.summary(maskUrl(execution.url()))));
+        return items;
+    }
+
+    /**
+     * A recorded execution with its credentials masked.
+     */
+    public Optional<ExecutionHistoryEntry> find(String sessionId, String requestId) {
+        return lookup(sessionId, requestId).map(execution ->
+                new ExecutionHistoryEntry(mask(execution.request()), mask(execution.response())));
+    }
+
+    /**
+     * The recorded request, with its body, ready to be executed again.
+     */
+    public Optional<ApiRequest> findRequest(String sessionId, String requestId) {
+        return lookup(sessionId, requestId).map(Execution::request);
+    }
+
+    /**
+     * The recorded response without its body, which is read back incrementally instead, with credentials masked.
+     */
+    public Optional<RecordedResponse> findResponse(String sessionId, String requestId) {
+        return lookup(sessionId, requestId).map(execution -> new RecordedResponse(mask(execution.responseWithoutBody),
+                () -> execution.responseBody != null ? execution.responseBody.reader() : Reader.nullReader()));
+    }
+
+    /**
+     * Forget all executions of a session.
+     *
+     * @return number of executions removed
+     */
+    public synchronized int clear(String sessionId) {
+        Deque<Execution> executions = sessions.remove(sessionId);
+        if (executions == null) {
+            return 0;
+        }
+        executions.forEach(this::forget);
+        return executions.size();
+    }
+
+    /**
+     * A recorded response with a {@code null} body, and a source of readers over that body.
+     */
+    public record RecordedResponse(ApiExecutionResponse withoutBody, Supplier<Reader> body) { }
+
+    // Private helper methods
+
+    private synchronized Optional<Execution> lookup(String sessionId, String requestId) {
+        Execution execution = byRequestId.get(requestId);
+        return execution != null && execution.sessionId.equals(sessionId) ? Optional.of(execution) : Optional.empty();
+    }
+
+    /**
+     * @return {@code false} if the execution is larger than the whole budget
+     */
+    private synchronized boolean store(Execution execution) {
+        if (execution.weight > maxBytes) {
+            logger.debug("Execution {} is larger than the history budget, not recording it", execution.requestId);
+            return false;
+        }
+        Deque<Execution> executions = sessions.computeIfAbsent(execution.sessionId, id -> new ArrayDeque<>());
+        executions.addLast(execution);
+        byRequestId.put(execution.requestId, execution);
+        totalBytes += execution.weight;
+        if (executions.size() > maxEntriesPerSession) {
+            forget(executions.removeFirst());
+        }
+        evictOverBudget();
+        return true;
+    }
+
+    /**
+     * Swap in the compressed bodies, unless the execution was dropped in the meantime.
+     */
+    private synchronized void compress(Execution stored, Execution compressed) {
+        if (byRequestId.get(stored.requestId) != stored) {
+            return;
+        }
+        totalBytes += compressed.weight - stored.weight;
+        stored.requestBody = compressed.requestBody;
+        stored.responseBody = compressed.responseBody;
+        stored.weight = compressed.weight;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Deque<Execution>> leastRecent = sessions.values().iterator();
+        while (totalBytes > maxBytes && leastRecent.hasNext()) {
+            Deque<Execution> oldest = leastRecent.next();
+            while (totalBytes > maxBytes && !oldest.isEmpty()) {
+                forget(oldest.removeFirst());
+            }
+            if (oldest.isEmpty()) {
+                leastRecent.remove();
+            }
+        }
+    }
+
+    private void forget(Execution execution) {
+        byRequestId.remove(execution.requestId);
+        totalBytes -= execution.weight;
+    }
+
+    private ApiRequest mask(ApiRequest r) {
+        return new ApiRequest(r.method(), maskUrl(r.url()), mask(r.headers()), r.queryParams(), r.body(),
+                r.sessionId(), r.timeoutMs(), r.followRedirects(), r.bypassCache(), r.assertions(), r.includeBody());
+    }
+
+    private ApiExecutionResponse mask(ApiExecutionResponse r) {
+        return new ApiExecutionResponse(r.statusCode(), r.statusText(), mask(r.headers()), r.body(),
+                r.responseTimeMs(), r.timestamp(), r.requestId(), r.success(), r.timings(), r.spilledBody(),
+                r.assertions());
+    }
+
+    private Map<String, String> mask(Map<String, String> headers) {
+        if (headers == null || headers.keySet().stream().noneMatch(maskedHeaders::contains)) {
+            return headers;
+        }
+        Map<String, String> masked = new LinkedHashMap<>(headers);
+        masked.replaceAll((name, value) -> maskedHeaders.contains(name) ? MASK : value);
+        return masked;
+    }
+
+    private static String maskUrl(String url) {
+        return url != null ? URL_USER_INFO.matcher(url).replaceFirst("$1" + MASK + "@") : null;
+    }
+
+    /**
+     * A recorded execution. The bodies start out uncompressed and are swapped for compressed ones under the
+     * history's lock; readers outside it may see either.
+     */
+    private static final class Execution {
+        private final String sessionId;
+        private final String requestId;
+        private final ApiRequest requestWithoutBody;
+        private final ApiExecutionResponse responseWithoutBody;
+        private volatile CompressedText requestBody;
+        private volatile CompressedText responseBody;
+        private int weight;
+
+        private Execution(String sessionId, String requestId, ApiRequest requestWithoutBody,
+                          CompressedText requestBody, ApiExecutionResponse responseWithoutBody,
+                          CompressedText responseBody, int weight) {
+            this.sessionId = sessionId;
+            this.requestId = requestId;
+            this.requestWithoutBody = requestWithoutBody;
+            this.requestBody = requestBody;
+            this.responseWithoutBody = responseWithoutBody;
+            this.responseBody = responseBody;
+            this.weight = weight;
+        }
+
+        static Execution of(ApiRequest request, ApiExecutionResponse response,
+                            Function<String, CompressedText> bodies) {
+            ApiRequest strippedRequest = new ApiRequest(request.method(), request.url(), request.headers(),
+                    request.queryParams(), null, request.sessionId(), request.timeoutMs(),
+                    request.followRedirects(), request.bypassCache(), request.assertions(), request.includeBody());
+            ApiExecutionResponse strippedResponse = new ApiExecutionResponse(response.statusCode(),
+                    response.statusText(), response.headers(), null, response.responseTimeMs(), response.timestamp(),
+                    response.requestId(), response.success(), response.timings(), response.spilledBody(),
+                    response.assertions());
+            CompressedText requestBody = bodies.apply(request.body());
+            CompressedText responseBody = bodies.apply(response.body());
+
+            int weight = ENTRY_OVERHEAD_BYTES + request.url().length() * 2
+                    + stored(requestBody) + stored(responseBody)
+                    + mapBytes(request.headers()) + mapBytes(request.queryParams()) + mapBytes(response.headers());
+            return new Execution(request.sessionId(), response.requestId(), strippedRequest, requestBody,
+                    strippedResponse, responseBody, weight);
+        }
+
+        String url() {
+            return requestWithoutBody.url();
+        }
+
+        ApiRequest request() {
+            ApiRequest r = requestWithoutBody;
+            CompressedText body = requestBody;
+            return new ApiRequest(r.method(), r.url(), r.headers(), r.queryParams(),
+                    body != null ? body.text() : null, r.sessionId(), r.timeoutMs(),
+                    r.followRedirects(), r.bypassCache(), r.assertions(), r.includeBody());
+        }
+
+        ApiExecutionResponse response() {
+            ApiExecutionResponse r = responseWithoutBody;
+            CompressedText body = responseBody;
+            return new ApiExecutionResponse(r.statusCode(), r.statusText(), r.headers(),
+                    body != null ? body.text() : null, r.responseTimeMs(), r.timestamp(),
+                    r.requestId(), r.success(), r.timings(), r.spilledBody(), r.assertions());
+        }
+
+        /**
+         * Called under the history's lock, which guards {@code weight}.
+         */
+        ExecutionHistoryItem summary(String url) {
+            CompressedText body = responseBody;
+            return new ExecutionHistoryItem(requestId, requestWithoutBody.method(), url,
+                    responseWithoutBody.statusCode(), responseWithoutBody.success(),
+                    responseWithoutBody.responseTimeMs(), responseWithoutBody.timestamp(),
+                    body != null ? body.originalBytes() : 0, weight);
+        }
+
+        private static int stored(CompressedText text) {
+            return text != null ? text.storedBytes() : 0;
+        }
+
+        private static int mapBytes(Map<String, String> map) {
+            if (map == null) {
+                return 0;
+            }
+            int bytes = 0;
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                bytes += 64 + 2 * (entry.getKey().length() + (entry.getValue() != null ? entry.getValue().length() : 0));
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.util.GcraRateLimiter;
+import com.apitestinghub.util.HttpUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-session, and optionally per-target-host, rate limit on proxied executions.
+ * <p>
+ * Keeps one noisy client from taking the whole upstream connection pool. Idle sessions and hosts are
+ * swept periodically. A limit with a non-positive rate is disabled.
+ */
+@Component
+public class ExecutionRateLimiter {
+
+    private static final String REJECTED_METRIC = "proxy.rate.limited";
+    private static final String TRACKED_METRIC = "proxy.rate.limit.keys";
+    private static final Duration MIN_EVICTION_PERIOD = Duration.ofSeconds(5);
+
+    private final boolean enabled;
+    private final GcraRateLimiter sessionLimiter;
+    private final GcraRateLimiter hostLimiter;
+    private final Counter sessionRejections;
+    private final Counter hostRejections;
+    private final List<Disposable> evictions = new ArrayList<>();
+
+    public ExecutionRateLimiter(@Value("${app.request.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${app.request.rate-limit.session.requests-per-second:20}") double sessionRate,
+                                @Value("${app.request.rate-limit.session.burst:40}") int sessionBurst,
+                                @Value("${app.request.rate-limit.host.requests-per-second:0}") double hostRate,
+                                @Value("${app.request.rate-limit.host.burst:100}") int hostBurst,
+                                @Value("${app.request.rate-limit.max-tracked-keys:500000}") long maxTrackedKeys,
+                                MeterRegistry registry) {
+        this.enabled = enabled;
+        this.sessionLimiter = enabled && sessionRate > 0
+                ? new GcraRateLimiter(sessionRate, sessionBurst, maxTrackedKeys) : null;
+        this.hostLimiter = enabled && hostRate > 0
+                ? new GcraRateLimiter(hostRate, hostBurst, maxTrackedKeys) : null;
+
+        this.sessionRejections = rejections(registry, "session");
+        this.hostRejections = rejections(registry, "host");
+        trackedKeys(registry, "session", sessionLimiter);
+        trackedKeys(registry, "host", hostLimiter);
+        scheduleEviction(sessionLimiter);
+        scheduleEviction(hostLimiter);
+    }
+
+    @PreDestroy
+    public void stop() {
+        evictions.forEach(Disposable::dispose);
+    }
+
+    /**
+     * Take a permit for the request's session and target host. A call rejected by the host limit gives
+     * its session permit back, so it does not count against the session.
+     *
+     * @throws RateLimitExceededException if either limit is exhausted
+     */
+    public void acquire(ApiRequest request) {
+        if (!enabled) {
+            return;
+        }
+        if (sessionLimiter != null) {
+            long waitNanos = sessionLimiter.tryAcquire(request.sessionId());
+            if (waitNanos > 0) {
+                sessionRejections.increment();
+                throw new RateLimitExceededException("Rate limit exceeded for this session", Duration.ofNanos(waitNanos));
+            }
+        }
+        if (hostLimiter != null) {
+            long waitNanos = hostLimiter.tryAcquire(HttpUtils.hostOf(request.url()));
+            if (waitNanos > 0) {
+                if (sessionLimiter != null) {
+                    sessionLimiter.release(request.sessionId());
+                }
+                hostRejections.increment();
+                throw new RateLimitExceededException("Rate limit exceeded for the target host", Duration.ofNanos(waitNanos));
+            }
+        }
+    }
+
+    /**
+     * Retry spec for internal callers that should wait for a permit instead of failing,
+     * such as batches and cache warm-ups. Other errors are passed through.
+     */
+    public static Retry waitForPermit() {
+        return Retry.from(signals -> signals.concatMap(signal ->
+                signal.failure() instanceof RateLimitExceededException limited
+                        ? Mono.delay(limited.getRetryAfter())
+                        : Mono.error(signal.failure())));
+    }
+
+    private void scheduleEviction(GcraRateLimiter limiter) {
+        if (limiter != null) {
+            long period = Math.max(limiter.refillNanos(), MIN_EVICTION_PERIOD.toNanos());
+            evictions.add(Schedulers.parallel().schedulePeriodically(limiter::evictIdle,
+                    period, period, TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private static Counter rejections(MeterRegistry registry, String scope) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Executions rejected by the rate limit")
+                .tag("scope", scope)
+                .register(registry);
+    }
+
+    private static void trackedKeys(MeterRegistry registry, String scope, GcraRateLimiter limiter) {
+        if (limiter != null) {
+            Gauge.builder(TRACKED_METRIC, limiter, GcraRateLimiter::trackedKeys)
+                    .description("Sessions or hosts currently tracked by the rate limit")
+                    .tag("scope", scope)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * HTTP-semantics cache for idempotent executions (GET and HEAD).
+ * <p>
+ * Honors {@code Cache-Control}, {@code Expires}, {@code ETag} and {@code Last-Modified}: fresh entries are
+ * served from memory and stale entries carrying validators are revalidated with a conditional request.
+ * Keys include every request header, so responses are only shared between callers sending identical
+ * credentials. Being shared between sessions, the cache follows the shared-cache rules of RFC 9111: responses
+ * marked {@code private} or carrying {@code Set-Cookie} are never stored, and {@code s-maxage} takes
+ * precedence over {@code max-age}. Entries are held in the size-weighted Caffeine cache defined in
+ * {@code CacheConfiguration}.
+ */
+@Component
+public class HttpResponseCache {
+
+    public static final String NAME = "http-responses";
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<String> CACHEABLE_METHODS = Set.of("GET", "HEAD");
+    private static final Set<String> CONDITIONAL_REQUEST_HEADERS = Set.of(
+            "if-none-match",
+            "if-modified-since",
+            "if-match",
+            "if-unmodified-since",
+            "if-range");
+
+    private final Cache<Key, Entry> cache;
+
+    @Value("${app.request.cache.enabled:true}")
+    private boolean enabled;
+
+    public HttpResponseCache(Cache<Key, Entry> httpResponseCacheStore) {
+        this.cache = httpResponseCacheStore;
+    }
+
+    /**
+     * Whether the request may be answered from, and stored in, the cache.
+     */
+    public boolean isCacheable(ApiRequest request, Map<String, String> headers) {
+        if (!enabled || Boolean.TRUE.equals(request.bypassCache())) return false;
+        if (!CACHEABLE_METHODS.contains(request.method().toUpperCase(Locale.ROOT))) return false;
+        if (request.body() != null && !request.body().isEmpty()) return false;
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            // Callers sending their own validators or cache directives want to see the upstream answer
+            if (CONDITIONAL_REQUEST_HEADERS.contains(name)) return false;
+            if (name.equals("cache-control") || name.equals("pragma")) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Answer from the cache when fresh, otherwise fetch (conditionally, if validators are known) and store.
+     *
+     * @param fetcher sends the upstream request with the given extra headers
+     */
+    public Mono<ResponseEntity<String>> execute(ApiRequest request, String url, Map<String, String> headers,
+                                                Function<HttpHeaders, Mono<ResponseEntity<String>>> fetcher) {
+        return Mono.defer(() -> {
+            Key key = new Key(request.method().toUpperCase(Locale.ROOT), url, normalize(headers));
+            Entry cached = cache.getIfPresent(key);
+            long now = System.currentTimeMillis();
+
+            if (cached != null && cached.isFresh(now)) {
+                return Mono.just(cached.toResponseEntity(now, "HIT"));
+            }
+            if (cached != null && cached.hasValidators()) {
+                return fetcher.apply(cached.conditionalHeaders())
+                        .map(response -> handleRevalidation(key, cached, response));
+            }
+            return fetcher.apply(HttpHeaders.EMPTY)
+                    .doOnNext(response -> store(key, response));
+        });
+    }
+
+    /**
+     * Remove entries for exactly {@code url}, entries whose URL starts with {@code urlPrefix},
+     * or everything when both are {@code null}. URLs include the merged query string.
+     *
+     * @return number of entries removed
+     */
+    public int invalidate(String url, String urlPrefix) {
+        int removed = 0;
+        for (Key key : cache.asMap().keySet()) {
+            boolean matches = url == null && urlPrefix == null
+                    || url != null && key.url().equals(url)
+                    || urlPrefix != null && key.url().startsWith(urlPrefix);
+            if (matches && cache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Private helper methods
+
+    private ResponseEntity<String> handleRevalidation(Key key, Entry cached, ResponseEntity<String> response) {
+        if (response.getStatusCode().value() != HttpStatus.NOT_MODIFIED.value()) {
+            store(key, response);
+            return response;
+        }
+
+        HttpHeaders merged = new HttpHeaders();
+        merged.putAll(cached.headers());
+        response.getHeaders().forEach((name, values) -> {
+            // 304 responses have no body, so never let them override entity framing headers
+            if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH) && !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)) {
+                merged.put(name, values);
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        Entry refreshed = new Entry(cached.status(), HttpHeaders.readOnlyHttpHeaders(merged), cached.body(),
+                now, computeExpiresAt(merged, now));
+        // The 304 may have turned the response private or attached a cookie
+        if (isStorable(merged)) {
+            cache.put(key, refreshed);
+        } else {
+            cache.invalidate(key);
+        }
+        return refreshed.toResponseEntity(now, "REVALIDATED");
+    }
+
+    private void store(Key key, ResponseEntity<String> response) {
+        HttpHeaders headers = response.getHeaders();
+        // Spilled bodies live in temp files with their own lifetime, and the entity only holds a preview
+        if (response.getStatusCode().value() != HttpStatus.OK.value() || !isStorable(headers)
+                || response instanceof ResponseSpillStore.SpilledResponseEntity) {
+            cache.invalidate(key);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(response.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers),
+                response.getBody(), now, computeExpiresAt(headers, now));
+
+        // Without freshness or validators there is nothing the cache could ever do with the entry
+        if (entry.isFresh(now) || entry.hasValidators()) {
+            cache.put(key, entry);
+        } else {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Shared-cache storability (RFC 9111 section 3): responses meant for a single user must not be
+     * stored, since the key does not include the session.
+     */
+    private static boolean isStorable(HttpHeaders headers) {
+        Map<String, String> directives = parseCacheControl(headers.getCacheControl());
+        return !directives.containsKey("no-store")
+                && !directives.containsKey("private")
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !headers.getVary().contains("*");
+    }
+
+    private long computeExpiresAt(HttpHeaders headers, long now) {
+        Map<String, String> directives = parseCacheControl(headers.getCacheControl());
+        if (directives.containsKey("no-cache")) return now;
+
+        // A missing or invalid Age means the response is fresh from the origin
+        long ageMillis = Math.max(parseSeconds(headers.getFirst(HttpHeaders.AGE)), 0) * 1000;
+        long maxAgeSeconds = parseSeconds(directives.get("s-maxage"));
+        if (maxAgeSeconds < 0) {
+            maxAgeSeconds = parseSeconds(directives.get("max-age"));
+        }
+        if (maxAgeSeconds >= 0) {
+            return now + maxAgeSeconds * 1000 - ageMillis;
+        }
+
+        long expires = headers.getExpires();
+        if (expires >= 0) {
+            long date = headers.getDate();
+            return now + (expires - (date >= 0 ? date : now)) - ageMillis;
+        }
+        return now;
+    }
+
+    private static Map<String, String> parseCacheControl(String cacheControl) {
+        Map<String, String> directives = new TreeMap<>();
+        if (cacheControl == null || cacheControl.isBlank()) return directives;
+
+        for (String part : cacheControl.split(",")) {
+            String directive = part.trim();
+            if (directive.isEmpty()) continue;
+
+            int eq = directive.indexOf('=');
+            if (eq < 0) {
+                directives.put(directive.toLowerCase(Locale.ROOT), "");
+            } else {
+                String value = directive.substring(eq + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                directives.put(directive.substring(0, eq).trim().toLowerCase(Locale.ROOT), value);
+            }
+        }
+        return directives;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null || value.isBlank()) return -1;
+        try {
+            return Math.max(Long.parseLong(value.trim()), 0);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> normalize(Map<String, String> headers) {
+        Map<String, String> normalized = new TreeMap<>();
+        headers.forEach((name, value) -> normalized.put(name.toLowerCase(Locale.ROOT), value));
+        return normalized;
+    }
+
+    /**
+     * Cache key: method, full URL including query parameters, and all request headers.
+     */
+    public record Key(String method, String url, Map<String, String> headers) { }
+
+    /**
+     * Stored response plus the absolute time (epoch millis) until which it may be served without revalidation.
+     */
+    public record Entry(HttpStatusCode status, HttpHeaders headers, String body, long storedAt, long expiresAt) {
+
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        boolean hasValidators() {
+            return headers.getETag() != null || headers.getLastModified() >= 0;
+        }
+
+        HttpHeaders conditionalHeaders() {
+            HttpHeaders conditional = new HttpHeaders();
+            if (headers.getETag() != null) {
+                conditional.setIfNoneMatch(headers.getETag());
+            }
+            if (headers.getLastModified() >= 0) {
+                conditional.setIfModifiedSince(headers.getLastModified());
+            }
+            return conditional;
+        }
+
+        ResponseEntity<String> toResponseEntity(long now, String cacheStatus) {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.putAll(headers);
+            responseHeaders.set(HttpHeaders.AGE, String.valueOf(Math.max(now - storedAt, 0) / 1000));
+            responseHeaders.set(CACHE_STATUS_HEADER, cacheStatus);
+            return new ResponseEntity<>(body, responseHeaders, status);
+        }
+
+        /**
+         * Approximate heap footprint in bytes, used as the Caffeine weight.
+         */
+        public int weight() {
+            long headerBytes = headers.entrySet().stream()
+                    .mapToLong(header -> header.getKey().length() + header.getValue().toString().length())
+                    .sum();
+            long bodyBytes = body != null ? body.length() : 0;
+            return (int) Math.min(Integer.MAX_VALUE, 2 * (headerBytes + bodyBytes) + 256);
+        }
+    }
+}
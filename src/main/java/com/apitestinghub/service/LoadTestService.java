@@ -0,0 +1,233 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.LoadTestRequest;
+import com.apitestinghub.dto.response.LatencySummary;
+import com.apitestinghub.dto.response.LoadTestResponse;
+import com.apitestinghub.exception.ApiRequestException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Service for load testing a single API request.
+ * <p>
+ * Supports an open model (fixed arrival rate) and a closed model (fixed number of workers).
+ * The open model measures latency from each request's intended send time, so results are
+ * not skewed by coordinated omission when the target slows down.
+ */
+@Service
+public class LoadTestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestService.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ApiRequestService apiRequestService;
+
+    @Value("${app.load-test.max-rps:1000}")
+    private int maxRps;
+
+    @Value("${app.load-test.max-concurrency:100}")
+    private int maxConcurrency;
+
+    @Value("${app.load-test.max-duration-seconds:300}")
+    private int maxDurationSeconds;
+
+    @Value("${app.load-test.max-in-flight:1000}")
+    private int maxInFlight;
+
+    public LoadTestService(ApiRequestService apiRequestService) {
+        this.apiRequestService = apiRequestService;
+    }
+
+    /**
+     * Run the load test and summarize latency, throughput and errors once it completes.
+     */
+    public Mono<LoadTestResponse> runLoadTest(LoadTestRequest request) {
+        validateLoadTest(request);
+
+        Supplier<Mono<Integer>> probe = apiRequestService.prepareStatusProbe(request.request());
+        int warmUpSeconds = request.warmUpSeconds() != null ? request.warmUpSeconds() : 0;
+        boolean openModel = request.targetRps() != null;
+
+        return Mono.defer(() -> {
+            LoadTestRun run = new LoadTestRun(System.nanoTime(), warmUpSeconds, request.durationSeconds());
+            logger.info("Starting {} load test against {} for {}s (+{}s warm-up)",
+                    openModel ? "open-model" : "closed-model", request.request().url(),
+                    request.durationSeconds(), warmUpSeconds);
+
+            Mono<Void> load = openModel
+                    ? runOpenModel(probe, request.targetRps(), run)
+                    : runClosedModel(probe, request.concurrency(), run);
+
+            return load.then(Mono.fromSupplier(() -> run.summarize(openModel ? "open" : "closed")));
+        });
+    }
+
+    // Private helper methods
+
+    private void validateLoadTest(LoadTestRequest request) {
+        if ((request.targetRps() == null) == (request.concurrency() == null)) {
+            throw new ApiRequestException("Exactly one of targetRps or concurrency must be set");
+        }
+        if (request.targetRps() != null && request.targetRps() > maxRps) {
+            throw new ApiRequestException("Target RPS must not exceed " + maxRps);
+        }
+        if (request.concurrency() != null && request.concurrency() > maxConcurrency) {
+            throw new ApiRequestException("Concurrency must not exceed " + maxConcurrency);
+        }
+
+        int warmUpSeconds = request.warmUpSeconds() != null ? request.warmUpSeconds() : 0;
+        if (request.durationSeconds() + warmUpSeconds > maxDurationSeconds) {
+            throw new ApiRequestException("Duration including warm-up must not exceed " + maxDurationSeconds + " seconds");
+        }
+    }
+
+    /**
+     * Requests are scheduled on a fixed timeline regardless of how fast earlier ones complete.
+     * Ticks that arrive while {@code maxInFlight} requests are outstanding are dropped and reported.
+     */
+    private Mono<Void> runOpenModel(Supplier<Mono<Integer>> probe, int targetRps, LoadTestRun run) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / targetRps;
+        long totalTicks = (long) targetRps * (run.warmUpSeconds + run.durationSeconds);
+
+        return Flux.interval(Duration.ZERO, Duration.ofNanos(intervalNanos))
+                .take(totalTicks)
+                .onBackpressureDrop(tick -> run.recordDropped(run.startNanos + tick * intervalNanos))
+                .flatMap(tick -> send(probe, run, run.startNanos + tick * intervalNanos), maxInFlight)
+                .then();
+    }
+
+    /**
+     * Each worker sends its next request as soon as the previous one completes.
+     */
+    private Mono<Void> runClosedModel(Supplier<Mono<Integer>> probe, int concurrency, LoadTestRun run) {
+        return Flux.range(0, concurrency)
+                .flatMap(worker -> Mono.defer(() -> send(probe, run, System.nanoTime()))
+                        .repeat(() -> System.nanoTime() < run.endNanos), concurrency)
+                .then();
+    }
+
+    private Mono<Void> send(Supplier<Mono<Integer>> probe, LoadTestRun run, long intendedStartNanos) {
+        return Mono.defer(probe)
+                .doOnNext(status -> run.recordResponse(intendedStartNanos, status))
+                .doOnError(ex -> run.recordFailure(intendedStartNanos, ex))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private static final class LoadTestRun {
+
+        private final long startNanos;
+        private final long measureStartNanos;
+        private final long endNanos;
+        private final int warmUpSeconds;
+        private final int durationSeconds;
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder successful = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private LoadTestRun(long startNanos, int warmUpSeconds, int durationSeconds) {
+            this.startNanos = startNanos;
+            this.warmUpSeconds = warmUpSeconds;
+            this.durationSeconds = durationSeconds;
+            this.measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(warmUpSeconds);
+            this.endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        }
+
+        void recordResponse(long intendedStartNanos, int status) {
+            if (!isMeasured(intendedStartNanos)) return;
+
+            recordLatency(intendedStartNanos);
+            if (status < 400) {
+                successful.increment();
+            } else {
+                failed.increment();
+                countError("HTTP " + status);
+            }
+        }
+
+        void recordFailure(long intendedStartNanos, Throwable ex) {
+            if (!isMeasured(intendedStartNanos)) return;
+
+            failed.increment();
+            countError(NestedExceptionUtils.getMostSpecificCause(ex).getClass().getSimpleName());
+        }
+
+        void recordDropped(long intendedStartNanos) {
+            if (!isMeasured(intendedStartNanos)) return;
+
+            dropped.increment();
+            countError("Dropped (max in-flight reached)");
+        }
+
+        LoadTestResponse summarize(String mode) {
+            double elapsedSeconds = Math.max(System.nanoTime() - measureStartNanos, 1) / 1e9;
+            long completed = successful.sum() + failed.sum();
+
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((key, count) -> errorCounts.put(key, count.sum()));
+
+            return new LoadTestResponse(
+                    mode,
+                    completed + dropped.sum(),
+                    successful.sum(),
+                    failed.sum(),
+                    dropped.sum(),
+                    elapsedSeconds,
+                    completed / elapsedSeconds,
+                    summarizeLatency(),
+                    errorCounts
+            );
+        }
+
+        private boolean isMeasured(long intendedStartNanos) {
+            return intendedStartNanos >= measureStartNanos && intendedStartNanos < endNanos;
+        }
+
+        private void recordLatency(long intendedStartNanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+            histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        private void countError(String key) {
+            errors.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+
+        private LatencySummary summarizeLatency() {
+            if (histogram.getTotalCount() == 0) {
+                return new LatencySummary(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new LatencySummary(
+                    toMillis(histogram.getMinValue()),
+                    histogram.getMean() / 1000.0,
+                    toMillis(histogram.getValueAtPercentile(50)),
+                    toMillis(histogram.getValueAtPercentile(90)),
+                    toMillis(histogram.getValueAtPercentile(99)),
+                    toMillis(histogram.getValueAtPercentile(99.9)),
+                    toMillis(histogram.getMaxValue())
+            );
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.MonitorRequest;
+import com.apitestinghub.dto.response.LatencySummary;
+import com.apitestinghub.dto.response.MonitorStatus;
+import com.apitestinghub.dto.response.MonitorWindow;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.exception.RateLimitExceededException;
+import com.apitestinghub.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic monitoring: registered requests are executed on a fixed interval and summarized per monitor.
+ * <p>
+ * All monitors share one {@link HierarchicalTimingWheel} advanced by a single periodic task, so tens of
+ * thousands of monitors cost one timer rather than one scheduled task each. Each monitor's first run is
+ * placed at a random point within its interval and every run gets a little jitter, so monitors registered
+ * together do not fire together. Runs that would overlap the previous one are skipped rather than queued.
+ * Each session may register at most {@code max-per-session} monitors, and every run is charged to the
+ * session and target host rate limits of the {@link ExecutionRateLimiter}; runs over either are skipped.
+ * <p>
+ * Memory per monitor is bounded: lifetime counters plus a fixed-size ring of the most recent runs.
+ * Monitors live in memory only and are gone after a restart.
+ */
+@Service
+public class MonitorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorService.class);
+    private static final String REGISTERED_METRIC = "monitors.registered";
+    private static final String IN_FLIGHT_METRIC = "monitors.in.flight";
+
+    private final ApiRequestService apiRequestService;
+    private final ExecutionRateLimiter rateLimiter;
+    private final Map<String, Monitor> monitors = new ConcurrentHashMap<>();
+    private final Map<String, Integer> monitorsPerSession = new ConcurrentHashMap<>();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final HierarchicalTimingWheel<Monitor> wheel;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Disposable ticker;
+    private final int maxMonitors;
+    private final int maxPerSession;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final int historySize;
+    private final int maxConcurrency;
+    private final Duration timeout;
+    private final double jitter;
+
+    public MonitorService(ApiRequestService apiRequestService,
+                          ExecutionRateLimiter rateLimiter,
+                          @Value("${app.request.monitors.tick:100ms}") Duration tick,
+                          @Value("${app.request.monitors.wheel-size:512}") int wheelSize,
+                          @Value("${app.request.monitors.max-monitors:50000}") int maxMonitors,
+                          @Value("${app.request.monitors.max-per-session:100}") int maxPerSession,
+                          @Value("${app.request.monitors.min-interval:10s}") Duration minInterval,
+                          @Value("${app.request.monitors.max-interval:1d}") Duration maxInterval,
+                          @Value("${app.request.monitors.history-size:120}") int historySize,
+                          @Value("${app.request.monitors.max-concurrency:200}") int maxConcurrency,
+                          @Value("${app.request.monitors.timeout:10s}") Duration timeout,
+                          @Value("${app.request.monitors.jitter:0.1}") double jitter,
+                          MeterRegistry registry) {
+        this.apiRequestService = apiRequestService;
+        this.rateLimiter = rateLimiter;
+        this.maxMonitors = maxMonitors;
+        this.maxPerSession = maxPerSession;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.historySize = historySize;
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = timeout;
+        this.jitter = Math.max(0, Math.min(jitter, 1));
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        this.ticker = Schedulers.parallel().schedulePeriodically(this::tick,
+                tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder(REGISTERED_METRIC, monitors, Map::size)
+                .description("Registered synthetic monitors")
+                .register(registry);
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, AtomicInteger::get)
+                .description("Monitor runs currently executing")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.dispose();
+        monitors.values().forEach(monitor -> monitor.removed = true);
+        monitors.clear();
+        monitorsPerSession.clear();
+        reserved.set(0);
+    }
+
+    /**
+     * Validate and register a monitor. The first run happens at a random point within one interval.
+     *
+     * @throws ApiRequestException if the interval is out of range, or the session or global monitor limit is reached
+     */
+    public MonitorStatus register(MonitorRequest request) {
+        Duration interval = Duration.ofSeconds(request.intervalSeconds());
+        if (interval.compareTo(minInterval) < 0 || interval.compareTo(maxInterval) > 0) {
+            throw new ApiRequestException("Interval must be between " + minInterval.toSeconds()
+                    + " and " + maxInterval.toSeconds() + " seconds");
+        }
+        Supplier<Mono<Integer>> probe = apiRequestService.prepareStatusProbe(request.request());
+
+        String sessionId = request.request().sessionId();
+        reserve(sessionId);
+        Monitor monitor = new Monitor(UUID.randomUUID().toString(), request.name(), request.request(),
+                interval.toMillis(), probe, historySize);
+        monitors.put(monitor.id, monitor);
+
+        long now = System.currentTimeMillis();
+        monitor.nominalMillis = now + ThreadLocalRandom.current().nextLong(monitor.intervalMillis);
+        schedule(monitor, monitor.nominalMillis);
+
+        logger.info("Registered monitor {} for {} {} every {}s", monitor.id,
+                request.request().method(), request.request().url(), request.intervalSeconds());
+        return monitor.status();
+    }
+
+    /**
+     * Monitors registered by {@code sessionId}, oldest first.
+     */
+    public List<MonitorStatus> list(String sessionId) {
+        return monitors.values().stream()
+                .filter(monitor -> sessionId.equals(monitor.request.sessionId()))
+                .sorted(Comparator.comparingLong(monitor -> monitor.createdMillis))
+                .map(Monitor::status)
+                .toList();
+    }
+
+    /**
+     * @return the monitor, or {@code null} if it does not exist
+     */
+    public MonitorStatus get(String id) {
+        Monitor monitor = monitors.get(id);
+        return monitor != null ? monitor.status() : null;
+    }
+
+    /**
+     * @return {@code false} if the monitor does not exist
+     */
+    public boolean delete(String id) {
+        Monitor monitor = monitors.remove(id);
+        if (monitor == null) {
+            return false;
+        }
+        // A run in progress sees the flag and does not schedule another
+        monitor.removed = true;
+        wheel.cancel(monitor.timeout);
+        release(monitor.request.sessionId());
+        logger.info("Deleted monitor {}", id);
+        return true;
+    }
+
+    // Private helper methods
+
+    /**
+     * Take a slot under both limits, or none; the per-session count is checked and updated in one step.
+     */
+    private void reserve(String sessionId) {
+        if (reserved.incrementAndGet() > maxMonitors) {
+            reserved.decrementAndGet();
+            throw new ApiRequestException("Monitor limit of " + maxMonitors + " reached",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            monitorsPerSession.compute(sessionId, (id, count) -> {
+                int current = count != null ? count : 0;
+                if (current >= maxPerSession) {
+                    throw new ApiRequestException("Session monitor limit of " + maxPerSession + " reached",
+                            HttpStatus.TOO_MANY_REQUESTS);
+                }
+                return current + 1;
+            });
+        } catch (ApiRequestException e) {
+            reserved.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(String sessionId) {
+        monitorsPerSession.computeIfPresent(sessionId, (id, count) -> count > 1 ? count - 1 : null);
+        reserved.decrementAndGet();
+    }
+
+    private void tick() {
+        for (Monitor monitor : wheel.advanceTo(System.currentTimeMillis())) {
+            run(monitor);
+        }
+    }
+
+    private void run(Monitor monitor) {
+        if (monitor.removed) {
+            return;
+        }
+        try {
+            rateLimiter.acquire(monitor.request);
+        } catch (RateLimitExceededException e) {
+            monitor.recordSkipped();
+            scheduleNext(monitor);
+            return;
+        }
+        if (inFlight.incrementAndGet() > maxConcurrency) {
+            inFlight.decrementAndGet();
+            monitor.recordSkipped();
+            scheduleNext(monitor);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Mono.defer(monitor.probe)
+                .timeout(timeoutOf(monitor.request))
+                .doOnNext(status -> monitor.recordResponse(status, elapsedMillis(startNanos)))
+                .doOnError(ex -> monitor.recordFailure(describe(ex)))
+                .onErrorResume(ex -> Mono.empty())
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    scheduleNext(monitor);
+                })
+                .subscribe();
+    }
+
+    /**
+     * Next nominal run after now; runs missed while the previous one was executing are skipped.
+     */
+    private void scheduleNext(Monitor monitor) {
+        if (monitor.removed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long nominal = monitor.nominalMillis + monitor.intervalMillis;
+        if (nominal <= now) {
+            nominal += ((now - nominal) / monitor.intervalMillis + 1) * monitor.intervalMillis;
+        }
+        monitor.nominalMillis = nominal;
+        schedule(monitor, nominal);
+    }
+
+    /**
+     * Jitter is added to the nominal time rather than accumulated, so monitors do not drift.
+     */
+    private void schedule(Monitor monitor, long nominalMillis) {
+        long maxJitter = (long) (monitor.intervalMillis * jitter);
+        long deadline = nominalMillis + (maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter) : 0);
+        monitor.nextRunMillis = deadline;
+        monitor.timeout = wheel.schedule(monitor, deadline);
+    }
+
+    private Duration timeoutOf(ApiRequest request) {
+        return request.timeoutMs() != null && request.timeoutMs() > 0
+                ? Duration.ofMillis(Math.min(request.timeoutMs(), timeout.toMillis()))
+                : timeout;
+    }
+
+    private static String describe(Throwable ex) {
+        if (ex instanceof TimeoutException) {
+            return "Timed out";
+        }
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()) : null;
+    }
+
+    private static final class Monitor {
+
+        private final String id;
+        private final String name;
+        private final ApiRequest request;
+        private final long intervalMillis;
+        private final Supplier<Mono<Integer>> probe;
+        private final long createdMillis = System.currentTimeMillis();
+
+        // Scheduling state, only touched by the run that currently owns the monitor
+        private volatile HierarchicalTimingWheel.Timeout<Monitor> timeout;
+        private volatile long nominalMillis;
+        private volatile long nextRunMillis;
+        private volatile boolean removed;
+
+        // Ring of recent runs; a latency of -1 marks a run that got no response
+        private final int[] latencies;
+        private final boolean[] available;
+        private int next;
+        private int count;
+
+        private long totalRuns;
+        private long failedRuns;
+        private long skippedRuns;
+        private int consecutiveFailures;
+        private long lastRunMillis;
+        private Integer lastStatusCode;
+        private String lastError;
+
+        Monitor(String id, String name, ApiRequest request, long intervalMillis,
+                Supplier<Mono<Integer>> probe, int historySize) {
+            this.id = id;
+            this.name = name;
+            this.request = request;
+            this.intervalMillis = intervalMillis;
+            this.probe = probe;
+            this.latencies = new int[historySize];
+            this.available = new boolean[historySize];
+        }
+
+        synchronized void recordResponse(int status, long latencyMillis) {
+            record(status < 400, (int) Math.min(latencyMillis, Integer.MAX_VALUE));
+            lastStatusCode = status;
+            lastError = null;
+        }
+
+        synchronized void recordFailure(String error) {
+            record(false, -1);
+            lastStatusCode = null;
+            lastError = error;
+        }
+
+        synchronized void recordSkipped() {
+            skippedRuns++;
+        }
+
+        private void record(boolean up, int latencyMillis) {
+            latencies[next] = latencyMillis;
+            available[next] = up;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+
+            totalRuns++;
+            lastRunMillis = System.currentTimeMillis();
+            if (up) {
+                consecutiveFailures = 0;
+            } else {
+                failedRuns++;
+                consecutiveFailures++;
+            }
+        }
+
+        synchronized MonitorStatus status() {
+            return new MonitorStatus(id, name, request.sessionId(), request.method(), request.url(),
+                    (int) (intervalMillis / 1000), toLocalDateTime(createdMillis), toLocalDateTime(lastRunMillis),
+                    removed ? null : toLocalDateTime(nextRunMillis), lastStatusCode, lastError,
+                    totalRuns, failedRuns, skippedRuns, consecutiveFailures, window());
+        }
+
+        private MonitorWindow window() {
+            int up = 0;
+            int responses = 0;
+            int[] sorted = new int[count];
+            for (int i = 0; i < count; i++) {
+                if (available[i]) {
+                    up++;
+                }
+                if (latencies[i] >= 0) {
+                    sorted[responses++] = latencies[i];
+                }
+            }
+            double availability = count > 0 ? (double) up / count : 0;
+            return new MonitorWindow(count, availability, responses > 0 ? summarize(sorted, responses) : null);
+        }
+
+        private static LatencySummary summarize(int[] latencies, int length) {
+            Arrays.sort(latencies, 0, length);
+            long total = 0;
+            for (int i = 0; i < length; i++) {
+                total += latencies[i];
+            }
+            return new LatencySummary(latencies[0], (double) total / length,
+                    percentile(latencies, length, 0.5), percentile(latencies, length, 0.9),
+                    percentile(latencies, length, 0.99), percentile(latencies, length, 0.999),
+                    latencies[length - 1]);
+        }
+
+        /**
+         * Nearest-rank percentile of the first {@code length} sorted values.
+         */
+        private static double percentile(int[] sorted, int length, double quantile) {
+            int rank = (int) Math.ceil(quantile * length);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+    }
+}
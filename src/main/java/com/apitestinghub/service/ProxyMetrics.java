@@ -0,0 +1,76 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.util.HttpUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and status metrics for proxied executions, tagged by target host.
+ * <p>
+ * Targets are user supplied, so only the first {@code max-hosts} distinct hosts get their own series;
+ * later ones are reported as {@code other} to keep the registry bounded.
+ */
+@Component
+public class ProxyMetrics {
+
+    private static final String REQUESTS_METRIC = "proxy.requests";
+    private static final String OVERFLOW_HOST = "other";
+
+    private final MeterRegistry registry;
+    private final int maxHosts;
+    private final Set<String> knownHosts = ConcurrentHashMap.newKeySet();
+
+    public ProxyMetrics(MeterRegistry registry, @Value("${app.request.metrics.max-hosts:200}") int maxHosts) {
+        this.registry = registry;
+        this.maxHosts = maxHosts;
+    }
+
+    /**
+     * Record one upstream exchange.
+     *
+     * @param status upstream status code, or a negative value when no response was received
+     * @param cache  {@code hit}, {@code revalidated} or {@code miss} for cache-aware executions,
+     *               {@code none} when the cache was not consulted
+     */
+    public void record(String url, String method, int status, String cache, long elapsedNanos) {
+        Timer.builder(REQUESTS_METRIC)
+                .description("Upstream latency of proxied executions")
+                .tag("host", hostTag(url))
+                .tag("method", method.toUpperCase(Locale.ROOT))
+                .tag("status", statusClass(status))
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String hostTag(String url) {
+        String host = HttpUtils.hostOf(url);
+        if (host.isEmpty()) {
+            return "unknown";
+        }
+        if (knownHosts.contains(host)) {
+            return host;
+        }
+        // Racing registrations may overshoot the cap by a few hosts, which is harmless
+        if (knownHosts.size() >= maxHosts) {
+            return OVERFLOW_HOST;
+        }
+        knownHosts.add(host);
+        return host;
+    }
+
+    private static String statusClass(int status) {
+        return status < 100 ? "error" : (status / 100) + "xx";
+    }
+}
@@ -0,0 +1,83 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces identical in-flight executions (single-flight).
+ * <p>
+ * Concurrent executions with the same method, URL, headers and body share one upstream call, and every
+ * subscriber receives the same result. The shared call is only cancelled once all subscribers have
+ * cancelled. By default only safe methods are coalesced; others can be opted in via configuration.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<Key, Mono<ApiExecutionResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> coalescedMethods;
+
+    @Value("${app.request.coalescing.enabled:true}")
+    private boolean enabled;
+
+    public RequestCoalescer(@Value("${app.request.coalescing.methods:GET,HEAD,OPTIONS}") String methods) {
+        this.coalescedMethods = Arrays.stream(methods.split(","))
+                .map(method -> method.trim().toUpperCase(Locale.ROOT))
+                .filter(method -> !method.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isCoalescable(ApiRequest request) {
+        return enabled && coalescedMethods.contains(request.method().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Join the in-flight execution for an identical request, or start one with {@code upstream}.
+     */
+    public Mono<ApiExecutionResponse> execute(ApiRequest request, String url, Map<String, String> headers,
+                                              Supplier<Mono<ApiExecutionResponse>> upstream) {
+        return Mono.defer(() -> {
+            Key key = new Key(request.method().toUpperCase(Locale.ROOT), url, normalize(headers),
+                    request.body() != null ? request.body() : "", Boolean.TRUE.equals(request.bypassCache()));
+            return inFlight.computeIfAbsent(key, k -> share(k, upstream));
+        });
+    }
+
+    /**
+     * Number of distinct executions currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // Private helper methods
+
+    private Mono<ApiExecutionResponse> share(Key key, Supplier<Mono<ApiExecutionResponse>> upstream) {
+        AtomicReference<Mono<ApiExecutionResponse>> self = new AtomicReference<>();
+        Mono<ApiExecutionResponse> shared = Mono.defer(upstream)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+
+    private static Map<String, String> normalize(Map<String, String> headers) {
+        Map<String, String> normalized = new TreeMap<>();
+        headers.forEach((name, value) -> normalized.put(name.toLowerCase(Locale.ROOT), value));
+        return normalized;
+    }
+
+    private record Key(String method, String url, Map<String, String> headers, String body, boolean bypassCache) { }
+}
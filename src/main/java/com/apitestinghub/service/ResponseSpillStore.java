@@ -0,0 +1,380 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.SpilledBody;
+import com.apitestinghub.exception.ApiRequestException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reads upstream bodies, spilling those over the threshold to temp files instead of memory.
+ * <p>
+ * Bodies are held as received buffers until they cross the threshold; from then on every buffer is
+ * written straight to an {@link AsynchronousFileChannel} and released, so a spilled body is never
+ * copied into memory as a whole. The execution carries a preview of the body and a {@link SpilledBody}
+ * handle for downloading the file. Files are deleted once their TTL has passed, the oldest go first when
+ * the total size budget is exceeded, and all of them are removed on startup and shutdown.
+ */
+@Component
+public class ResponseSpillStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSpillStore.class);
+
+    private static final String FILE_SUFFIX = ".body";
+    private static final Duration SWEEP_PERIOD = Duration.ofMinutes(1);
+
+    /**
+     * A spilled body on disk.
+     */
+    public record SpilledFile(String id, Path path, long size, String contentType, long expiresAtMillis) {
+
+        public Charset charset() {
+            if (contentType != null) {
+                try {
+                    Charset charset = MediaType.parseMediaType(contentType).getCharset();
+                    if (charset != null) {
+                        return charset;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Fall back to UTF-8 for unparseable content types
+                }
+            }
+            return StandardCharsets.UTF_8;
+        }
+
+        SpilledBody toHandle() {
+            return new SpilledBody(id, size, contentType,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()));
+        }
+    }
+
+    /**
+     * Upstream entity whose body was spilled; the body holds only a preview. The spill id travels on the
+     * entity rather than in a header, so upstream headers cannot pose as a spilled body.
+     */
+    public static final class SpilledResponseEntity extends ResponseEntity<String> {
+        private final String spillId;
+
+        SpilledResponseEntity(String preview, HttpHeaders headers, HttpStatusCode status, String spillId) {
+            super(preview, headers, status);
+            this.spillId = spillId;
+        }
+
+        public String spillId() {
+            return spillId;
+        }
+    }
+
+    private final Map<String, SpilledFile> files = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final long threshold;
+    private final int previewBytes;
+    private final long maxFileSize;
+    private final long maxTotalSize;
+    private final Duration ttl;
+    private long totalSize;
+    private Disposable sweeper;
+
+    public ResponseSpillStore(@Value("${app.request.spill.directory:${java.io.tmpdir}/apitestinghub/spill}") String directory,
+                              @Value("${app.request.spill.threshold:8MB}") DataSize threshold,
+                              @Value("${app.request.spill.preview-size:64KB}") DataSize previewSize,
+                              @Value("${app.request.spill.max-file-size:2GB}") DataSize maxFileSize,
+                              @Value("${app.request.spill.max-total-size:8GB}") DataSize maxTotalSize,
+                              @Value("${app.request.spill.ttl:30m}") Duration ttl) {
+        this.directory = Paths.get(directory);
+        this.threshold = threshold.toBytes();
+        this.previewBytes = (int) Math.min(previewSize.toBytes(), this.threshold);
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxTotalSize = maxTotalSize.toBytes();
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        // Handles do not survive a restart, so files left behind by a previous run are unreachable
+        deleteAll();
+        sweeper = Schedulers.parallel().schedulePeriodically(this::deleteExpired,
+                SWEEP_PERIOD.toMillis(), SWEEP_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+        deleteAll();
+    }
+
+    /**
+     * Read the body of a non-error upstream response. Spilled responses are returned as a
+     * {@link SpilledResponseEntity} with a preview as their body.
+     */
+    public Mono<ResponseEntity<String>> readEntity(ClientResponse response) {
+        long contentLength = response.headers().contentLength().orElse(-1);
+        if (contentLength > maxFileSize) {
+            return response.releaseBody().then(Mono.error(tooLarge()));
+        }
+        Optional<MediaType> contentType = response.headers().contentType();
+        Charset charset = contentType.map(MediaType::getCharset).orElse(StandardCharsets.UTF_8);
+        Spool spool = new Spool(contentType.map(MediaType::toString).orElse(null), charset);
+
+        return response.bodyToFlux(DataBuffer.class)
+                .concatMap(spool::accept)
+                .then(Mono.fromCallable(() -> spool.finish(response)))
+                .doFinally(signal -> {
+                    if (signal != SignalType.ON_COMPLETE) {
+                        spool.abort();
+                    }
+                });
+    }
+
+    /**
+     * A spilled file that has not expired yet.
+     */
+    public Optional<SpilledFile> find(String id) {
+        SpilledFile file = files.get(id);
+        return file != null && file.expiresAtMillis() > System.currentTimeMillis() ? Optional.of(file) : Optional.empty();
+    }
+
+    public Optional<SpilledBody> describe(String id) {
+        return find(id).map(SpilledFile::toHandle);
+    }
+
+    /**
+     * Parser over a response's full body, read from its spill file while that is available, else over
+     * the body text. Reading a file blocks, so callers run this off event loops.
+     */
+    public JsonParser bodyParser(JsonFactory jsonFactory, ApiExecutionResponse response) throws IOException {
+        Optional<SpilledFile> spilled = response.spilledBody() != null
+                ? find(response.spilledBody().id())
+                : Optional.empty();
+        if (spilled.isPresent()) {
+            // Jackson detects the encoding from the leading bytes
+            return jsonFactory.createParser(Files.newInputStream(spilled.get().path()));
+        }
+        return jsonFactory.createParser(response.body() != null ? response.body() : "");
+    }
+
+    // Private helper methods
+
+    private synchronized void register(SpilledFile file) {
+        files.put(file.id(), file);
+        totalSize += file.size();
+        if (totalSize > maxTotalSize) {
+            List<SpilledFile> oldest = new ArrayList<>(files.values());
+            oldest.sort(Comparator.comparingLong(SpilledFile::expiresAtMillis));
+            for (SpilledFile candidate : oldest) {
+                if (totalSize <= maxTotalSize || candidate.id().equals(file.id())) {
+                    break;
+                }
+                delete(candidate);
+            }
+        }
+    }
+
+    private synchronized void deleteExpired() {
+        long now = System.currentTimeMillis();
+        files.values().stream().filter(file -> file.expiresAtMillis() <= now).toList().forEach(this::delete);
+    }
+
+    private void delete(SpilledFile file) {
+        if (files.remove(file.id(), file)) {
+            totalSize -= file.size();
+        }
+        deleteQuietly(file.path());
+    }
+
+    private synchronized void deleteAll() {
+        files.clear();
+        totalSize = 0;
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX)).forEach(ResponseSpillStore::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Could not clean spill directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete spilled body {}: {}", path, e.getMessage());
+        }
+    }
+
+    private ApiRequestException tooLarge() {
+        return new ApiRequestException("Response body exceeds the maximum of " + DataSize.ofBytes(maxFileSize),
+                HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    /**
+     * Receiving state of one body. Buffers arrive one at a time through {@code concatMap}.
+     */
+    private final class Spool {
+
+        private final String contentType;
+        private final Charset charset;
+        private final List<DataBuffer> held = new ArrayList<>();
+        private long size;
+        private String id;
+        private Path path;
+        private AsynchronousFileChannel channel;
+        private ByteBuffer preview;
+
+        Spool(String contentType, Charset charset) {
+            this.contentType = contentType;
+            this.charset = charset;
+        }
+
+        Mono<Void> accept(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (size + length > maxFileSize) {
+                DataBufferUtils.release(buffer);
+                return Mono.error(tooLarge());
+            }
+            if (channel == null && size + length <= threshold) {
+                held.add(buffer);
+                size += length;
+                return Mono.empty();
+            }
+
+            Flux<DataBuffer> pending;
+            long position;
+            if (channel == null) {
+                held.add(buffer);
+                try {
+                    startSpill();
+                } catch (IOException e) {
+                    return Mono.error(new ApiRequestException("Could not spill response body", e));
+                }
+                pending = Flux.fromIterable(new ArrayList<>(held));
+                position = 0;
+                held.clear();
+            } else {
+                pending = Flux.just(buffer);
+                position = size;
+            }
+            size += length;
+            return DataBufferUtils.write(pending, channel, position)
+                    .map(DataBufferUtils::release)
+                    .then();
+        }
+
+        ResponseEntity<String> finish(ClientResponse response) throws IOException {
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(response.headers().asHttpHeaders());
+            if (channel == null) {
+                return ResponseEntity.status(response.statusCode()).headers(headers)
+                        .body(size == 0 ? null : joinHeld());
+            }
+
+            channel.close();
+            SpilledFile file = new SpilledFile(id, path, size, contentType, System.currentTimeMillis() + ttl.toMillis());
+            register(file);
+            logger.debug("Spilled {} byte response body to {}", size, path);
+
+            return new SpilledResponseEntity(decodePreview(), headers, response.statusCode(), id);
+        }
+
+        void abort() {
+            held.forEach(DataBufferUtils::release);
+            held.clear();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // The file is deleted next anyway
+                }
+                if (!files.containsKey(id)) {
+                    deleteQuietly(path);
+                }
+            }
+        }
+
+        private void startSpill() throws IOException {
+            preview = ByteBuffer.allocate(previewBytes);
+            for (DataBuffer buffer : held) {
+                int length = Math.min(buffer.readableByteCount(), preview.remaining());
+                if (length == 0) {
+                    break;
+                }
+                buffer.toByteBuffer(buffer.readPosition(), preview, preview.position(), length);
+                preview.position(preview.position() + length);
+            }
+            preview.flip();
+
+            id = UUID.randomUUID().toString();
+            path = directory.resolve(id + FILE_SUFFIX);
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        private String joinHeld() {
+            byte[] bytes = new byte[(int) size];
+            int offset = 0;
+            for (DataBuffer buffer : held) {
+                int length = buffer.readableByteCount();
+                buffer.read(bytes, offset, length);
+                offset += length;
+                DataBufferUtils.release(buffer);
+            }
+            held.clear();
+            return new String(bytes, charset);
+        }
+
+        private String decodePreview() throws CharacterCodingException {
+            // The preview may end inside a multi-byte character, which is dropped rather than garbled
+            CharBuffer chars = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.IGNORE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(preview);
+            return chars.toString();
+        }
+    }
+}
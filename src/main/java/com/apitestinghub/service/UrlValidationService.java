@@ -0,0 +1,120 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.util.HttpUtils;
+import com.apitestinghub.util.KeyedConcurrencyLimiter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cached URL validation for {@code /requests/validate}, which the frontend calls on every keystroke.
+ * <p>
+ * Results are cached with a shorter lifetime for invalid URLs, and a check still in flight is shared by
+ * every caller asking about the same URL, so repeated validations send at most one HEAD request per TTL.
+ * Batches check distinct URLs concurrently, with a per-host limit so one slow target cannot take the pool.
+ */
+@Service
+public class UrlValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlValidationService.class);
+
+    public static final String NAME = "url-validations";
+
+    private final AsyncCache<String, Boolean> store;
+    private final ApiRequestService apiRequestService;
+
+    @Value("${app.request.validation.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.request.validation.batch.max-concurrency:20}")
+    private int maxConcurrency;
+
+    @Value("${app.request.validation.batch.max-per-host-concurrency:4}")
+    private int maxPerHostConcurrency;
+
+    public UrlValidationService(AsyncCache<String, Boolean> urlValidationCacheStore,
+                                ApiRequestService apiRequestService) {
+        this.store = urlValidationCacheStore;
+        this.apiRequestService = apiRequestService;
+    }
+
+    /**
+     * Whether the URL is safe and answers a HEAD request with 2xx, from the cache when possible.
+     */
+    public Mono<Boolean> validate(String url) {
+        return Mono.defer(() -> load(url.trim()));
+    }
+
+    /**
+     * Validate every distinct URL, returning results in the order the URLs were first given.
+     */
+    public Mono<Map<String, Boolean>> validateAll(List<String> urls) {
+        if (urls.size() > maxBatchSize) {
+            throw new ApiRequestException("Batch size " + urls.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        urls.forEach(url -> distinct.add(url.trim()));
+        KeyedConcurrencyLimiter hostLimiter = new KeyedConcurrencyLimiter(maxPerHostConcurrency);
+
+        return Flux.fromIterable(distinct)
+                .flatMap(url -> validateLimited(url, hostLimiter).map(valid -> Map.entry(url, valid)), maxConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(results -> {
+                    Map<String, Boolean> ordered = new LinkedHashMap<>();
+                    distinct.forEach(url -> ordered.put(url, results.get(url)));
+                    return ordered;
+                });
+    }
+
+    /**
+     * Remove cached results for {@code url}, for URLs starting with {@code urlPrefix}, or all when both are null.
+     *
+     * @return the number of entries removed
+     */
+    public int invalidate(String url, String urlPrefix) {
+        int removed = 0;
+        for (String key : store.synchronous().asMap().keySet()) {
+            boolean matches = url == null && urlPrefix == null
+                    || url != null && key.equals(url)
+                    || urlPrefix != null && key.startsWith(urlPrefix);
+            if (matches && store.synchronous().asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Private helper methods
+
+    /**
+     * Cached results skip the host limit; only checks that may go upstream wait for a permit.
+     */
+    private Mono<Boolean> validateLimited(String url, KeyedConcurrencyLimiter hostLimiter) {
+        CompletableFuture<Boolean> cached = store.getIfPresent(url);
+        if (cached != null) {
+            return Mono.fromFuture(cached, true);
+        }
+        return hostLimiter.limit(HttpUtils.hostOf(url), () -> load(url));
+    }
+
+    private Mono<Boolean> load(String url) {
+        CompletableFuture<Boolean> result = store.get(url, (key, executor) -> {
+            logger.debug("URL validation cache miss for {}", key);
+            return apiRequestService.validateUrl(key).toFuture();
+        });
+        return Mono.fromFuture(result, true);
+    }
+}
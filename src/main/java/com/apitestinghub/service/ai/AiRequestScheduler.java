@@ -0,0 +1,361 @@
+package com.apitestinghub.service.ai;
+
+import com.apitestinghub.exception.ApiRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Paces calls to the AI provider so they stay within its requests-per-minute and tokens-per-minute limits.
+ * <p>
+ * Work waits in a priority queue without holding a thread: interactive requests are dispatched ahead of
+ * bulk ones. Budgets start from configuration and are corrected from the provider's
+ * {@code x-ratelimit-*} headers and the reported token usage. A 429 or 503 with {@code Retry-After}
+ * pauses all dispatch until the provider is ready again, so retries queue up instead of amplifying a storm.
+ */
+@Component
+public class AiRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiRequestScheduler.class);
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final Pattern RESET_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    public enum Priority {
+        INTERACTIVE,
+        BULK
+    }
+
+    @Value("${app.ai.scheduler.default-retry-after:5s}")
+    private Duration defaultRetryAfter;
+
+    private final int maxConcurrency;
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+    private final Budget requests;
+    private final Budget tokens;
+
+    // Guarded by this
+    private final Deque<Ticket> interactive = new ArrayDeque<>();
+    private final Deque<Ticket> bulk = new ArrayDeque<>();
+    private int inFlight;
+    private long pausedUntil;
+    private boolean wakeUpScheduled;
+
+    public AiRequestScheduler(@Value("${app.ai.scheduler.requests-per-minute:15}") int requestsPerMinute,
+                              @Value("${app.ai.scheduler.tokens-per-minute:60000}") int tokensPerMinute,
+                              @Value("${app.ai.scheduler.max-concurrency:4}") int maxConcurrency,
+                              @Value("${app.ai.scheduler.max-queue-size:200}") int maxQueueSize,
+                              @Value("${app.ai.scheduler.max-queue-wait:2m}") Duration maxQueueWait) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+        long now = System.nanoTime();
+        this.requests = new Budget(requestsPerMinute, now);
+        this.tokens = new Budget(tokensPerMinute, now);
+    }
+
+    /**
+     * Handle for a dispatched call, used to report the tokens it actually consumed.
+     */
+    public final class Permit {
+        private final long reservedTokens;
+        private boolean usageRecorded;
+
+        private Permit(long reservedTokens) {
+            this.reservedTokens = reservedTokens;
+        }
+
+        /**
+         * Replace the up-front token estimate with the provider's reported total.
+         */
+        public void recordUsage(long totalTokens) {
+            synchronized (AiRequestScheduler.this) {
+                if (usageRecorded || totalTokens <= 0) {
+                    return;
+                }
+                usageRecorded = true;
+                tokens.refund(reservedTokens - totalTokens);
+            }
+            drain();
+        }
+    }
+
+    private static final class Ticket {
+        private final Priority priority;
+        private final long tokens;
+        private MonoSink<Permit> sink;
+        private boolean granted;
+
+        private Ticket(Priority priority, long tokens) {
+            this.priority = priority;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * Run a single-result call once budget and a concurrency slot are available.
+     */
+    public <T> Mono<T> schedule(Priority priority, long estimatedTokens, Function<Permit, Mono<T>> task) {
+        return scheduleMany(priority, estimatedTokens, permit -> task.apply(permit).flux()).singleOrEmpty();
+    }
+
+    /**
+     * Run a streaming call once budget and a concurrency slot are available.
+     * The slot is held until the stream terminates or is cancelled.
+     */
+    public <T> Flux<T> scheduleMany(Priority priority, long estimatedTokens, Function<Permit, Flux<T>> task) {
+        return Flux.defer(() -> {
+            Ticket ticket = new Ticket(priority, Math.max(1, estimatedTokens));
+            return acquire(ticket)
+                    .timeout(maxQueueWait)
+                    .onErrorMap(TimeoutException.class, ex -> new ApiRequestException(
+                            "AI request waited too long for rate limit budget. Please try again later.",
+                            ex, HttpStatus.TOO_MANY_REQUESTS))
+                    .flatMapMany(task)
+                    .doFinally(signal -> finish(ticket));
+        });
+    }
+
+    /**
+     * Filter that feeds every provider response, including retried attempts, back into the budgets.
+     */
+    public ExchangeFilterFunction rateLimitObserver() {
+        return ExchangeFilterFunction.ofResponseProcessor(response -> {
+            observe(response.statusCode(), response.headers().asHttpHeaders());
+            return Mono.just(response);
+        });
+    }
+
+    void observe(HttpStatusCode status, HttpHeaders headers) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            requests.observe(parseLong(headers.getFirst("x-ratelimit-limit-requests")),
+                    parseLong(headers.getFirst("x-ratelimit-remaining-requests")),
+                    parseReset(headers.getFirst("x-ratelimit-reset-requests")), now);
+            tokens.observe(parseLong(headers.getFirst("x-ratelimit-limit-tokens")),
+                    parseLong(headers.getFirst("x-ratelimit-remaining-tokens")),
+                    parseReset(headers.getFirst("x-ratelimit-reset-tokens")), now);
+
+            if (status.value() == 429 || (status.value() == 503 && headers.containsKey(HttpHeaders.RETRY_AFTER))) {
+                Duration retryAfter = parseRetryAfter(headers);
+                pausedUntil = Math.max(pausedUntil, now + retryAfter.toNanos());
+                logger.warn("AI provider returned {}, pausing dispatch for {}ms", status.value(), retryAfter.toMillis());
+            }
+        }
+        drain();
+    }
+
+    public synchronized int queuedCount() {
+        return interactive.size() + bulk.size();
+    }
+
+    public synchronized int inFlightCount() {
+        return inFlight;
+    }
+
+    private Mono<Permit> acquire(Ticket ticket) {
+        return Mono.create(sink -> {
+            synchronized (this) {
+                if (interactive.size() + bulk.size() >= maxQueueSize) {
+                    sink.error(new ApiRequestException(
+                            "AI request queue is full. Please wait before making more requests.",
+                            HttpStatus.TOO_MANY_REQUESTS));
+                    return;
+                }
+                ticket.sink = sink;
+                (ticket.priority == Priority.INTERACTIVE ? interactive : bulk).add(ticket);
+            }
+            drain();
+        });
+    }
+
+    private void finish(Ticket ticket) {
+        synchronized (this) {
+            if (!ticket.granted) {
+                // Cancelled, timed out or rejected while still queued
+                interactive.remove(ticket);
+                bulk.remove(ticket);
+                return;
+            }
+            inFlight--;
+        }
+        drain();
+    }
+
+    private void drain() {
+        List<Ticket> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            long wait = 0;
+
+            while (inFlight < maxConcurrency) {
+                Deque<Ticket> queue = interactive.isEmpty() ? bulk : interactive;
+                Ticket next = queue.peek();
+                if (next == null) {
+                    break;
+                }
+                wait = Math.max(pausedUntil - now,
+                        Math.max(requests.nanosUntil(1, now), tokens.nanosUntil(next.tokens, now)));
+                if (wait > 0) {
+                    break;
+                }
+                queue.poll();
+                requests.take(1);
+                tokens.take(next.tokens);
+                next.granted = true;
+                inFlight++;
+                ready.add(next);
+            }
+
+            if (wait > 0 && !wakeUpScheduled) {
+                wakeUpScheduled = true;
+                Schedulers.parallel().schedule(this::wakeUp, wait, TimeUnit.NANOSECONDS);
+            }
+        }
+        for (Ticket ticket : ready) {
+            ticket.sink.success(new Permit(ticket.tokens));
+        }
+    }
+
+    private void wakeUp() {
+        synchronized (this) {
+            wakeUpScheduled = false;
+        }
+        drain();
+    }
+
+    private Duration parseRetryAfter(HttpHeaders headers) {
+        Long millis = parseLong(headers.getFirst("retry-after-ms"));
+        if (millis != null) {
+            return Duration.ofMillis(millis);
+        }
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value != null) {
+            Long seconds = parseLong(value);
+            if (seconds != null) {
+                return Duration.ofSeconds(seconds);
+            }
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ignored) {
+                // Fall through to the default pause
+            }
+        }
+        return defaultRetryAfter;
+    }
+
+    /**
+     * Parse reset hints such as {@code 20ms}, {@code 1s} or {@code 6m0s}; plain numbers are seconds.
+     */
+    private static Long parseReset(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Long seconds = parseLong(value);
+        if (seconds != null) {
+            return TimeUnit.SECONDS.toNanos(seconds);
+        }
+        Matcher matcher = RESET_PART.matcher(value.trim());
+        double nanos = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            nanos += switch (matcher.group(2)) {
+                case "ms" -> amount * 1e6;
+                case "s" -> amount * 1e9;
+                case "m" -> amount * 60e9;
+                default -> amount * 3600e9;
+            };
+        }
+        return matched ? (long) nanos : null;
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Per-minute budget refilled continuously, so dispatch is spread over the minute instead of bursting.
+     * The level may go negative when the provider reports less headroom than we assumed.
+     */
+    private static final class Budget {
+        private long capacity;
+        private double level;
+        private long refilledAt;
+        private long blockedUntil;
+
+        private Budget(long perMinute, long now) {
+            this.capacity = Math.max(1, perMinute);
+            this.level = capacity;
+            this.refilledAt = now;
+        }
+
+        long nanosUntil(long amount, long now) {
+            refill(now);
+            long blocked = blockedUntil - now;
+            double needed = Math.min(amount, capacity) - level;
+            long refill = needed <= 0 ? 0 : (long) Math.ceil(needed * NANOS_PER_MINUTE / capacity);
+            return Math.max(blocked, refill);
+        }
+
+        void take(long amount) {
+            level -= Math.min(amount, capacity);
+        }
+
+        void refund(long amount) {
+            level = Math.min(capacity, level + amount);
+        }
+
+        void observe(Long limit, Long remaining, Long resetNanos, long now) {
+            refill(now);
+            if (limit != null && limit > 0) {
+                capacity = limit;
+            }
+            if (remaining != null) {
+                level = Math.min(level, remaining);
+                if (remaining <= 0 && resetNanos != null) {
+                    blockedUntil = Math.max(blockedUntil, now + resetNanos);
+                }
+            }
+        }
+
+        private void refill(long now) {
+            level = Math.min(capacity, level + (double) (now - refilledAt) * capacity / NANOS_PER_MINUTE);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.apitestinghub.service.ai;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of completed AI answers.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the model, temperature and fully rendered prompt, so any change
+ * in the request, response or prompt template yields a different key. Only completed strings are stored;
+ * concurrent misses for the same prompt share one model call, and failed calls are never cached.
+ * <p>
+ * Digests cannot be traced back to a target, so the URL an answer was generated for is kept in a bounded side
+ * index for targeted invalidation. Answers reloaded from disk after a restart are only reachable by key prefix.
+ */
+@Component
+public class AiResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResultCache.class);
+
+    public static final String NAME = "ai-results";
+
+    private static final int MAX_INDEXED_SOURCES = 100_000;
+
+    private final AsyncCache<String, String> store;
+    private final AiResultDiskStore diskStore;
+    private final Cache<String, String> sourceUrls;
+
+    @Value("${app.ai.github-models.model}")
+    private String model;
+
+    @Value("${app.ai.github-models.temperature}")
+    private double temperature;
+
+    public AiResultCache(AsyncCache<String, String> aiResultCacheStore, AiResultDiskStore diskStore,
+                         @Value("${app.ai.cache.expire-after-write:6h}") Duration expireAfterWrite) {
+        this.store = aiResultCacheStore;
+        this.diskStore = diskStore;
+        this.sourceUrls = Caffeine.newBuilder()
+                .maximumSize(MAX_INDEXED_SOURCES)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Return the cached answer for the prompt, or subscribe to the loader and cache what it emits.
+     * In-memory misses consult the disk tier before calling the loader.
+     * An empty or failed loader leaves no entry behind.
+     *
+     * @param sourceUrl target the prompt was built for, or {@code null}; used for invalidation only
+     */
+    public Mono<String> get(String prompt, String sourceUrl, Supplier<Mono<String>> loader) {
+        return Mono.defer(() -> {
+            String key = keyFor(prompt);
+            indexSource(key, sourceUrl);
+            CompletableFuture<String> result = store.get(key, (ignored, executor) -> {
+                logger.debug("AI result cache miss for {}", key);
+                return diskStore.lookup(key)
+                        .switchIfEmpty(Mono.defer(() -> loader.get()
+                                .doOnNext(value -> diskStore.store(key, value))))
+                        .toFuture();
+            });
+            return Mono.fromFuture(result, true);
+        });
+    }
+
+    /**
+     * Cached answer for the prompt, if a completed one is present in memory or on disk.
+     * Disk hits are promoted back into memory.
+     */
+    public Mono<String> getIfPresent(String prompt) {
+        return Mono.defer(() -> {
+            String key = keyFor(prompt);
+            CompletableFuture<String> result = store.getIfPresent(key);
+            if (result != null && result.isDone()) {
+                return Mono.fromFuture(result, true);
+            }
+            return diskStore.lookup(key)
+                    .doOnNext(value -> store.put(key, CompletableFuture.completedFuture(value)));
+        }).onErrorResume(error -> Mono.empty());
+    }
+
+    public void put(String prompt, String sourceUrl, String result) {
+        if (result != null && !result.isEmpty()) {
+            String key = keyFor(prompt);
+            indexSource(key, sourceUrl);
+            store.put(key, CompletableFuture.completedFuture(result));
+            diskStore.store(key, result);
+        }
+    }
+
+    /**
+     * Remove answers generated for exactly {@code url}, answers whose key starts with {@code keyPrefix},
+     * or everything when both are {@code null}. Removes from memory and disk.
+     *
+     * @return number of distinct keys removed
+     */
+    public int invalidate(String url, String keyPrefix) {
+        Set<String> keys = new HashSet<>();
+        if (url != null) {
+            sourceUrls.asMap().forEach((key, source) -> {
+                if (source.equals(url)) {
+                    keys.add(key);
+                }
+            });
+        }
+        if (keyPrefix != null || url == null) {
+            String prefix = keyPrefix != null ? keyPrefix.toLowerCase(Locale.ROOT) : "";
+            store.asMap().keySet().stream().filter(key -> key.startsWith(prefix)).forEach(keys::add);
+            diskStore.keys().stream().filter(key -> key.startsWith(prefix)).forEach(keys::add);
+        }
+
+        for (String key : keys) {
+            store.synchronous().invalidate(key);
+            diskStore.remove(key);
+            sourceUrls.invalidate(key);
+        }
+        return keys.size();
+    }
+
+    private void indexSource(String key, String sourceUrl) {
+        if (sourceUrl != null) {
+            sourceUrls.put(key, sourceUrl);
+        }
+    }
+
+    String keyFor(String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Double.toString(temperature).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.apitestinghub.service.ai;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Disk-backed second tier for completed AI answers, so they survive restarts and deploys.
+ * <p>
+ * Answers are appended to memory-mapped segment files and located through an in-memory offset index that is
+ * rebuilt by scanning the segments on startup. Each record is laid out as
+ * {@code [length][expiresAt][sha-256 key][utf-8 value][crc32]}, with the length written last so a torn write
+ * is detected and discarded. Sealed segments are compacted into the active one once most of their bytes are
+ * overwritten or expired, or whenever another segment would take the store past {@code max-size}; writes that
+ * still do not fit are refused. Removals append an already expired tombstone, so a removed answer does not come
+ * back on the next startup. Disabled unless {@code app.ai.cache.disk.enabled} is set.
+ */
+@Component
+public class AiResultDiskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResultDiskStore.class);
+
+    private static final int KEY_BYTES = 32;
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + KEY_BYTES;
+    private static final int RECORD_OVERHEAD = HEADER_BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Value("${app.ai.cache.disk.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.ai.cache.disk.directory:${java.io.tmpdir}/apitestinghub/ai-cache}")
+    private String directory;
+
+    @Value("${app.ai.cache.disk.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.ai.cache.disk.max-size:1GB}")
+    private DataSize maxSize;
+
+    @Value("${app.ai.cache.disk.ttl:7d}")
+    private Duration ttl;
+
+    @Value("${app.ai.cache.disk.compaction-threshold:0.5}")
+    private double compactionThreshold;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+
+    private record Location(Segment segment, int offset, int length, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        private int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(root)) {
+            files = listing.filter(path -> parseSegmentId(path) >= 0).toList();
+        }
+        for (Path file : files) {
+            Segment segment = mapSegment(parseSegmentId(file), file);
+            segments.put(segment.id, segment);
+        }
+        for (Segment segment : segments.values()) {
+            recover(segment);
+        }
+
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+        maybeCompact(false);
+        logger.info("AI disk cache opened at {} with {} entries in {} segments", root, index.size(), segments.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Look up a stored answer by its hex SHA-256 key. Reads happen off the calling thread,
+     * since touching a mapped page may fault in from disk.
+     */
+    public Mono<String> lookup(String key) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> read(key).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(error -> {
+                    logger.warn("AI disk cache read failed for {}: {}", key, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Append an answer asynchronously; the caller never waits for the disk tier.
+     */
+    public void store(String key, String value) {
+        if (!enabled || value == null || value.isEmpty()) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                write(key, value);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("AI disk cache write failed for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Remove an answer asynchronously, appending a tombstone that shadows it during recovery.
+     */
+    public void remove(String key) {
+        if (!enabled || index.remove(key) == null) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                writeTombstone(key);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("AI disk cache removal failed for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Keys of the answers currently indexed, including ones that expired but were not yet pruned.
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    public int entryCount() {
+        return index.size();
+    }
+
+    Optional<String> read(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return Optional.empty();
+        }
+        if (location.isExpired(System.currentTimeMillis())) {
+            index.remove(key, location);
+            return Optional.empty();
+        }
+        byte[] value = new byte[location.length() - RECORD_OVERHEAD];
+        location.segment().buffer.slice(location.offset() + HEADER_BYTES, value.length).get(value);
+        return Optional.of(new String(value, StandardCharsets.UTF_8));
+    }
+
+    synchronized void write(String key, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_OVERHEAD + bytes.length;
+        if (length > segmentSize.toBytes()) {
+            logger.debug("Skipping AI disk cache write for {}: {} bytes exceed the segment size", key, length);
+            return;
+        }
+        append(key, HexFormat.of().parseHex(key), System.currentTimeMillis() + ttl.toMillis(), bytes);
+    }
+
+    synchronized void writeTombstone(String key) throws IOException {
+        if (index.containsKey(key)) {
+            // Stored again since the removal; the newer record already shadows the removed one
+            return;
+        }
+        Location tombstone = append(key, HexFormat.of().parseHex(key), 0, new byte[0]);
+        // The tombstone itself is never served, only replayed by recovery
+        index.remove(key, tombstone);
+    }
+
+    private Location append(String key, byte[] digest, long expiresAt, byte[] value) throws IOException {
+        int length = RECORD_OVERHEAD + value.length;
+        if (active.remaining() < length) {
+            if (segments.size() >= maxSegments()) {
+                maybeCompact(true);
+            }
+            if (active.remaining() < length) {
+                if (segments.size() >= maxSegments()) {
+                    throw new IOException("AI disk cache is full at " + maxSize);
+                }
+                roll();
+            }
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int offset = active.writePosition;
+        buffer.putLong(offset + Integer.BYTES, expiresAt);
+        buffer.put(offset + Integer.BYTES + Long.BYTES, digest);
+        buffer.put(offset + HEADER_BYTES, value);
+        buffer.putInt(offset + length - Integer.BYTES, checksum(buffer, offset, length));
+        buffer.putInt(offset, length);
+        active.writePosition += length;
+
+        Location location = new Location(active, offset, length, expiresAt);
+        index.put(key, location);
+        return location;
+    }
+
+    private void roll() throws IOException {
+        active.buffer.force();
+        active = newSegment(active.id + 1);
+        maybeCompact(false);
+    }
+
+    private long maxSegments() {
+        return Math.max(1, maxSize.toBytes() / segmentSize.toBytes());
+    }
+
+    /**
+     * Copy live records out of sealed segments into the active one and delete the sealed files,
+     * once less than {@code compaction-threshold} of their bytes is still live, or, when {@code force}
+     * is set, as soon as any of their bytes can be reclaimed.
+     */
+    private void maybeCompact(boolean force) throws IOException {
+        long sealedBytes = 0;
+        for (Segment segment : segments.values()) {
+            if (segment != active) {
+                sealedBytes += segment.writePosition;
+            }
+        }
+        if (sealedBytes == 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long liveBytes = 0;
+        List<Map.Entry<String, Location>> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            if (location.segment() == active) {
+                continue;
+            }
+            if (location.isExpired(now)) {
+                index.remove(entry.getKey(), location);
+            } else {
+                liveBytes += location.length();
+                live.add(entry);
+            }
+        }
+        if (force ? liveBytes >= sealedBytes : liveBytes > sealedBytes * (1 - compactionThreshold)) {
+            return;
+        }
+
+        List<Segment> sealed = segments.values().stream().filter(segment -> segment != active).toList();
+        for (Map.Entry<String, Location> entry : live) {
+            Location location = entry.getValue();
+            byte[] digest = new byte[KEY_BYTES];
+            byte[] value = new byte[location.length() - RECORD_OVERHEAD];
+            location.segment().buffer.get(location.offset() + Integer.BYTES + Long.BYTES, digest);
+            location.segment().buffer.slice(location.offset() + HEADER_BYTES, value.length).get(value);
+            if (active.remaining() < location.length()) {
+                active.buffer.force();
+                active = newSegment(active.id + 1);
+            }
+            if (index.get(entry.getKey()) == location) {
+                append(entry.getKey(), digest, location.expiresAt(), value);
+            }
+        }
+        active.buffer.force();
+
+        // Readers holding an old location keep working: the mapping outlives the deleted file
+        for (Segment segment : sealed) {
+            segments.remove(segment.id);
+            Files.deleteIfExists(segment.path);
+        }
+        logger.info("Compacted AI disk cache: {} live of {} sealed bytes kept", liveBytes, sealedBytes);
+    }
+
+    private void recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        long now = System.currentTimeMillis();
+        int position = 0;
+
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_OVERHEAD || position + length > buffer.capacity()
+                    || buffer.getInt(position + length - Integer.BYTES) != checksum(buffer, position, length)) {
+                break;
+            }
+            long expiresAt = buffer.getLong(position + Integer.BYTES);
+            byte[] digest = new byte[KEY_BYTES];
+            buffer.get(position + Integer.BYTES + Long.BYTES, digest);
+            String key = HexFormat.of().formatHex(digest);
+            if (expiresAt > now) {
+                index.put(key, new Location(segment, position, length, expiresAt));
+            } else {
+                // Expired records and tombstones shadow older records of the same key
+                index.remove(key);
+            }
+            position += length;
+        }
+
+        // Clear a torn tail so later appends cannot run into stale records
+        if (position + Integer.BYTES <= buffer.capacity() && buffer.getInt(position) != 0) {
+            logger.warn("Discarding torn AI disk cache tail in {} at offset {}", segment.path, position);
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        segment.writePosition = position;
+    }
+
+    private Segment newSegment(long id) throws IOException {
+        Path path = Paths.get(directory).resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Segment segment = mapSegment(id, path);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment mapSegment(long id, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentSize.toBytes());
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + Integer.BYTES, length - RECORD_OVERHEAD + Long.BYTES + KEY_BYTES));
+        return (int) crc.getValue();
+    }
+
+    private static long parseSegmentId(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
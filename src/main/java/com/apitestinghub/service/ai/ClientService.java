@@ -1,19 +1,34 @@
 package com.apitestinghub.service.ai;
 
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.service.ai.AiRequestScheduler.Permit;
+import com.apitestinghub.service.ai.AiRequestScheduler.Priority;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service responsible for HTTP communication with GitHub Models AI API.
@@ -24,9 +39,14 @@ public class ClientService {
     private static final Logger logger = LoggerFactory.getLogger(ClientService.class);
     private static final String AI_ERROR_MESSAGE = "AI service temporarily unavailable. Please try again later.";
     private static final String RATE_LIMIT_MESSAGE = "Rate limit exceeded. Please wait before making more requests.";
+    private static final String STREAM_DONE_MARKER = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() { };
 
     private final WebClient githubModelsWebClient;
     private final ObjectMapper objectMapper;
+    private final AiRequestScheduler scheduler;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.ai.github-models.model}")
     private String model;
@@ -38,31 +58,92 @@ public class ClientService {
     private double temperature;
 
     public ClientService(@Qualifier("githubModelsWebClient") WebClient githubModelsWebClient,
-                           ObjectMapper objectMapper) {
-        this.githubModelsWebClient = githubModelsWebClient;
+                           ObjectMapper objectMapper, AiRequestScheduler scheduler,
+                           MeterRegistry meterRegistry) {
+        this.githubModelsWebClient = githubModelsWebClient.mutate()
+                .filter(scheduler.rateLimitObserver())
+                .build();
         this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
         logger.info("AI Client Service initialized - Model: {}", model);
     }
 
     public Mono<String> executeAiRequest(String prompt, String operationType) {
-        Map<String, Object> requestBody = buildApiRequest(prompt);
-        long startTime = System.currentTimeMillis();
-
-        return githubModelsWebClient
-                .post()
-                .uri("/chat/completions")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
+        return completeAiRequest(prompt, operationType, Priority.INTERACTIVE)
+                .onErrorResume(error -> Mono.just(describeFailure(error)));
+    }
+
+    /**
+     * Execute an AI request and emit the generated content only when the model produced a real answer.
+     * <p>
+     * Failures are signalled as {@link ApiRequestException} instead of being degraded into a message,
+     * so the result can safely be cached. Use {@link #describeFailure(Throwable)} to render them.
+     * Calls are dispatched through the {@link AiRequestScheduler} at the given priority.
+     */
+    public Mono<String> completeAiRequest(String prompt, String operationType, Priority priority) {
+        Map<String, Object> requestBody = buildApiRequest(prompt, false);
+        long startNanos = System.nanoTime();
+
+        return scheduler.schedule(priority, estimateTokens(prompt), permit -> githubModelsWebClient
+                        .post()
+                        .uri("/chat/completions")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .map(response -> extractContentFromResponse(response, operationType, permit)))
+                .retryWhen(buildRateLimitRetrySpec(operationType))
                 .retryWhen(buildRetrySpec(operationType))
-                .map(this::extractContentFromResponse)
-                .doOnSuccess(result -> logOperationComplete(operationType, startTime))
-                .onErrorResume(WebClientResponseException.class, ex -> handleHttpError(ex, operationType))
-                .onErrorReturn(AI_ERROR_MESSAGE);
+                .onErrorResume(WebClientResponseException.class, ex -> handleHttpError(ex, operationType)
+                        .flatMap(message -> Mono.error(new ApiRequestException(message, ex, toHttpStatus(ex)))))
+                .doFinally(signal -> recordOperationComplete(operationType, "complete", signal, startNanos));
     }
 
-    private Map<String, Object> buildApiRequest(String prompt) {
-        return Map.of(
+    /**
+     * User-facing message for a failed AI request, as returned by {@link #executeAiRequest(String, String)}.
+     */
+    public String describeFailure(Throwable error) {
+        return error instanceof ApiRequestException ? error.getMessage() : AI_ERROR_MESSAGE;
+    }
+
+    /**
+     * Execute an AI request with {@code stream: true} and emit content deltas as they arrive.
+     * <p>
+     * Unlike {@link #executeAiRequest(String, String)} failures are signalled as errors rather than
+     * degraded into a message, so callers can tell a complete answer from a partial one.
+     * Retries only apply before the first chunk has been received. The provider is asked to report usage
+     * in a final chunk; if it does not, the reservation is corrected from an estimate of the streamed content.
+     */
+    public Flux<String> streamAiRequest(String prompt, String operationType, Priority priority) {
+        Map<String, Object> requestBody = buildApiRequest(prompt, true);
+        long startNanos = System.nanoTime();
+
+        return scheduler.scheduleMany(priority, estimateTokens(prompt), permit -> {
+                    AtomicLong completionTokens = new AtomicLong();
+                    return githubModelsWebClient
+                            .post()
+                            .uri("/chat/completions")
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .bodyValue(requestBody)
+                            .retrieve()
+                            .bodyToFlux(SSE_TYPE)
+                            .mapNotNull(ServerSentEvent::data)
+                            .takeWhile(data -> !STREAM_DONE_MARKER.equals(data.trim()))
+                            .concatMap(chunk -> extractDeltaFromChunk(chunk, operationType, permit))
+                            .doOnNext(delta -> completionTokens.addAndGet(PromptCompactor.estimateTokens(delta)))
+                            // Ignored when the provider already reported usage
+                            .doOnComplete(() -> permit.recordUsage(
+                                    estimatePromptTokens(prompt) + completionTokens.get()));
+                })
+                .retryWhen(buildRateLimitRetrySpec(operationType))
+                .retryWhen(buildRetrySpec(operationType))
+                .onErrorResume(WebClientResponseException.class, ex -> handleHttpError(ex, operationType)
+                        .flatMapMany(message -> Flux.error(new ApiRequestException(message, ex, toHttpStatus(ex)))))
+                .doFinally(signal -> recordOperationComplete(operationType, "stream", signal, startNanos));
+    }
+
+    private Map<String, Object> buildApiRequest(String prompt, boolean stream) {
+        Map<String, Object> request = new LinkedHashMap<>(Map.of(
                 "model", model,
                 "messages", new Object[]{
                         Map.of("role", "system", "content", buildSystemPrompt()),
@@ -70,11 +151,15 @@ public class ClientService {
                 },
                 "max_tokens", maxTokens,
                 "temperature", temperature,
-                "stream", false,
+                "stream", stream,
                 "top_p", 1.0,
                 "frequency_penalty", 0.0,
                 "presence_penalty", 0.0
-        );
+        ));
+        if (stream) {
+            request.put("stream_options", Map.of("include_usage", true));
+        }
+        return request;
     }
 
     private String buildSystemPrompt() {
@@ -84,6 +169,29 @@ public class ClientService {
                 "Be concise but thorough, and structure your responses clearly.";
     }
 
+    /**
+     * Estimated input tokens plus the completion budget the provider reserves.
+     */
+    private long estimateTokens(String prompt) {
+        return estimatePromptTokens(prompt) + maxTokens;
+    }
+
+    private long estimatePromptTokens(String prompt) {
+        return PromptCompactor.estimateTokens(buildSystemPrompt()) + PromptCompactor.estimateTokens(prompt);
+    }
+
+    /**
+     * Rate-limited attempts go straight back into the scheduler queue, which holds them until
+     * the provider's Retry-After has passed, so no extra backoff is added here.
+     */
+    private Retry buildRateLimitRetrySpec(String operationType) {
+        return Retry.max(3)
+                .filter(this::isRateLimitError)
+                .doBeforeRetry(retrySignal ->
+                        logger.warn("Rate limited during {}, re-queueing (attempt {})",
+                                operationType, retrySignal.totalRetries() + 1));
+    }
+
     private Retry buildRetrySpec(String operationType) {
         return Retry.backoff(3, Duration.ofSeconds(1))
                 .maxBackoff(Duration.ofSeconds(10))
@@ -97,11 +205,15 @@ public class ClientService {
     private boolean isRetryableError(Throwable throwable) {
         if (throwable instanceof WebClientResponseException ex) {
             int statusCode = ex.getStatusCode().value();
-            return statusCode >= 500 || statusCode == 429;
+            return statusCode >= 500;
         }
         return false;
     }
 
+    private boolean isRateLimitError(Throwable throwable) {
+        return throwable instanceof WebClientResponseException ex && ex.getStatusCode().value() == 429;
+    }
+
     private Mono<String> handleHttpError(WebClientResponseException ex, String operationType) {
         int statusCode = ex.getStatusCode().value();
         String message = switch (statusCode) {
@@ -129,50 +241,112 @@ public class ClientService {
         return Mono.just(message);
     }
 
-    private String extractContentFromResponse(String response) {
+    String extractContentFromResponse(String response, String operationType, Permit permit) {
+        JsonNode rootNode;
         try {
-            JsonNode rootNode = objectMapper.readTree(response);
+            rootNode = objectMapper.readTree(response);
+        } catch (Exception e) {
+            logger.error("Error parsing AI response: {}", e.getMessage(), e);
+            throw new ApiRequestException("Error parsing AI response: " + e.getMessage(), e);
+        }
 
-            if (rootNode.has("error")) {
-                String errorMessage = rootNode.get("error").get("message").asText();
-                logger.error("GitHub Models API error: {}", errorMessage);
-                return "API Error: " + errorMessage;
-            }
+        if (rootNode.has("error")) {
+            String errorMessage = rootNode.path("error").path("message").asText();
+            logger.error("GitHub Models API error: {}", errorMessage);
+            throw new ApiRequestException("API Error: " + errorMessage, HttpStatus.BAD_GATEWAY);
+        }
 
-            JsonNode choices = rootNode.path("choices");
-            if (choices.isEmpty()) {
-                logger.error("No choices in API response");
-                return "No response generated by AI model";
-            }
+        JsonNode choices = rootNode.path("choices");
+        if (choices.isEmpty()) {
+            logger.error("No choices in API response");
+            throw new ApiRequestException("No response generated by AI model", HttpStatus.BAD_GATEWAY);
+        }
 
-            String content = choices.get(0).path("message").path("content").asText().trim();
+        String content = choices.get(0).path("message").path("content").asText().trim();
 
-            if (content.isEmpty()) {
-                logger.warn("Empty content received from AI model");
-                return "Empty response from AI model";
+        if (content.isEmpty()) {
+            logger.warn("Empty content received from AI model");
+            throw new ApiRequestException("Empty response from AI model", HttpStatus.BAD_GATEWAY);
+        }
+
+        recordTokenUsage(rootNode, operationType, permit);
+        return content;
+    }
+
+    private HttpStatus toHttpStatus(WebClientResponseException ex) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        return status != null ? status : HttpStatus.BAD_GATEWAY;
+    }
+
+    private Flux<String> extractDeltaFromChunk(String chunk, String operationType, Permit permit) {
+        try {
+            JsonNode rootNode = objectMapper.readTree(chunk);
+
+            if (rootNode.has("error")) {
+                String errorMessage = rootNode.path("error").path("message").asText();
+                logger.error("GitHub Models API error in stream: {}", errorMessage);
+                return Flux.error(new ApiRequestException("API Error: " + errorMessage, HttpStatus.BAD_GATEWAY));
             }
 
-            logTokenUsage(rootNode);
-            return content;
+            recordTokenUsage(rootNode, operationType, permit);
+            String content = rootNode.path("choices").path(0).path("delta").path("content").asText("");
+            return content.isEmpty() ? Flux.empty() : Flux.just(content);
 
         } catch (Exception e) {
-            logger.error("Error parsing AI response: {}", e.getMessage(), e);
-            return "Error parsing AI response: " + e.getMessage();
+            logger.error("Error parsing AI stream chunk: {}", e.getMessage());
+            return Flux.error(new ApiRequestException("Error parsing AI response: " + e.getMessage(), e));
         }
     }
 
-    private void logTokenUsage(JsonNode rootNode) {
-        if (rootNode.has("usage")) {
+    private void recordTokenUsage(JsonNode rootNode, String operationType, Permit permit) {
+        if (rootNode.hasNonNull("usage")) {
             JsonNode usage = rootNode.get("usage");
+            long promptTokens = usage.path("prompt_tokens").asLong();
+            long completionTokens = usage.path("completion_tokens").asLong();
+            long totalTokens = usage.path("total_tokens").asLong();
+
+            permit.recordUsage(totalTokens);
+            countTokens(operationType, "prompt", promptTokens);
+            countTokens(operationType, "completion", completionTokens);
+            countTokens(operationType, "total", totalTokens);
             logger.debug("Token usage - Prompt: {}, Completion: {}, Total: {}",
-                    usage.path("prompt_tokens").asInt(),
-                    usage.path("completion_tokens").asInt(),
-                    usage.path("total_tokens").asInt());
+                    promptTokens, completionTokens, totalTokens);
         }
     }
 
-    private void logOperationComplete(String operationType, long startTime) {
-        long duration = System.currentTimeMillis() - startTime;
-        logger.debug("{} completed in {}ms", operationType, duration);
+    private void countTokens(String operationType, String kind, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        Counter.builder("ai.tokens")
+                .description("Tokens reported by the AI provider")
+                .baseUnit("tokens")
+                .tag("operation", operationType)
+                .tag("model", model)
+                .tag("type", kind)
+                .register(meterRegistry)
+                .increment(tokens);
+    }
+
+    /**
+     * Record end-to-end latency, including time spent queued for rate limit budget and retries.
+     */
+    private void recordOperationComplete(String operationType, String mode, SignalType signal, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        String outcome = switch (signal) {
+            case ON_COMPLETE -> "success";
+            case CANCEL -> "cancelled";
+            default -> "error";
+        };
+        Timer.builder("ai.requests")
+                .description("Latency of AI provider operations")
+                .tag("operation", operationType)
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+        logger.debug("{} {} in {}ms", operationType, outcome, TimeUnit.NANOSECONDS.toMillis(duration));
     }
 }
\ No newline at end of file
@@ -2,14 +2,17 @@ package com.apitestinghub.service.ai;
 
 import com.apitestinghub.dto.request.ApiRequest;
 import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.service.ai.AiRequestScheduler.Priority;
 import com.apitestinghub.service.ai.ClientService;
 import com.apitestinghub.service.ai.PromptService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Supplier;
+
 /**
  * Service for AI-powered documentation generation.
  * Orchestrates AI operations using specialized services.
@@ -21,56 +24,123 @@ public class DocumentationService {
 
     private final ClientService clientService;
     private final PromptService promptService;
+    private final AiResultCache resultCache;
 
-    public DocumentationService(ClientService clientService, PromptService promptService) {
+    public DocumentationService(ClientService clientService, PromptService promptService, AiResultCache resultCache) {
         this.clientService = clientService;
         this.promptService = promptService;
+        this.resultCache = resultCache;
         logger.info("AI Documentation Service initialized");
     }
 
-    @Cacheable(value = "ai-documentation",
-            key = "#request.url() + '_' + #request.method()",
-            unless = "#result == null or #result.contains('error')")
     public Mono<String> generateDocumentation(ApiRequest request, ApiExecutionResponse response) {
         logger.debug("Generating documentation for {} {}", request.method(), request.url());
 
         String prompt = promptService.buildDocumentationPrompt(request, response);
 
-        return clientService.executeAiRequest(prompt, "documentation generation")
+        return completeWithCache(prompt, request.url(), "documentation generation", Priority.BULK)
                 .doOnSuccess(result -> logger.info("Documentation generated for {} {}",
                         request.method(), request.url()))
                 .doOnError(error -> logger.error("Failed to generate documentation for {} {}: {}",
-                        request.method(), request.url(), error.getMessage()));
+                        request.method(), request.url(), error.getMessage()))
+                .onErrorResume(error -> Mono.just(clientService.describeFailure(error)));
     }
 
-    @Cacheable(value = "ai-descriptions",
-            key = "#request.url() + '_' + #request.method()",
-            unless = "#result == null or #result.contains('error')")
     public Mono<String> generateApiDescription(ApiRequest request) {
         logger.debug("Generating description for {} {}", request.method(), request.url());
 
         String prompt = promptService.buildDescriptionPrompt(request);
 
-        return clientService.executeAiRequest(prompt, "description generation")
+        return completeWithCache(prompt, request.url(), "description generation", Priority.INTERACTIVE)
                 .doOnSuccess(result -> logger.info("Description generated for {} {}",
                         request.method(), request.url()))
                 .doOnError(error -> logger.error("Failed to generate description for {} {}: {}",
-                        request.method(), request.url(), error.getMessage()));
+                        request.method(), request.url(), error.getMessage()))
+                .onErrorResume(error -> Mono.just(clientService.describeFailure(error)));
     }
 
-    @Cacheable(value = "ai-analysis",
-            key = "#response.statusCode() + '_' + #response.responseTimeMs() + '_' + T(java.util.Objects).hash(#response.body())",
-            unless = "#result == null or #result.contains('error')")
     public Mono<String> analyzeResponse(ApiExecutionResponse response) {
         logger.debug("Analyzing response - Status: {}, Time: {}ms",
                 response.statusCode(), response.responseTimeMs());
 
         String prompt = promptService.buildAnalysisPrompt(response);
 
-        return clientService.executeAiRequest(prompt, "response analysis")
+        return completeWithCache(prompt, null, "response analysis", Priority.INTERACTIVE)
                 .doOnSuccess(result -> logger.info("Analysis completed for status {} ({}ms)",
                         response.statusCode(), response.responseTimeMs()))
                 .doOnError(error -> logger.error("Failed to analyze response (status {}): {}",
-                        response.statusCode(), error.getMessage()));
+                        response.statusCode(), error.getMessage()))
+                .onErrorResume(error -> Mono.just(clientService.describeFailure(error)));
+    }
+
+    /**
+     * Generate and cache the description of a request for cache warm-up. Runs at bulk priority so it never
+     * delays interactive calls, and signals failures instead of degrading them into a message.
+     */
+    public Mono<String> prefetchApiDescription(ApiRequest request) {
+        String prompt = promptService.buildDescriptionPrompt(request);
+        return completeWithCache(prompt, request.url(), "description generation", Priority.BULK);
+    }
+
+    /**
+     * Streaming variant of {@link #generateDocumentation}. Shares its cache: a hit is emitted as one chunk,
+     * and a fully streamed answer is stored once the stream completes.
+     */
+    public Flux<String> streamDocumentation(ApiRequest request, ApiExecutionResponse response) {
+        logger.debug("Streaming documentation for {} {}", request.method(), request.url());
+
+        return streamWithCache(() -> promptService.buildDocumentationPrompt(request, response), request.url(),
+                "documentation generation", Priority.BULK);
+    }
+
+    /**
+     * Streaming variant of {@link #generateApiDescription}.
+     */
+    public Flux<String> streamApiDescription(ApiRequest request) {
+        logger.debug("Streaming description for {} {}", request.method(), request.url());
+
+        return streamWithCache(() -> promptService.buildDescriptionPrompt(request), request.url(),
+                "description generation", Priority.INTERACTIVE);
+    }
+
+    /**
+     * Streaming variant of {@link #analyzeResponse}.
+     */
+    public Flux<String> streamResponseAnalysis(ApiExecutionResponse response) {
+        logger.debug("Streaming analysis - Status: {}, Time: {}ms", response.statusCode(), response.responseTimeMs());
+
+        return streamWithCache(() -> promptService.buildAnalysisPrompt(response), null, "response analysis",
+                Priority.INTERACTIVE);
+    }
+
+    /**
+     * Full documentation is bulk work and yields to interactive descriptions and analyses in the AI queue.
+     */
+    private Mono<String> completeWithCache(String prompt, String sourceUrl, String operationType, Priority priority) {
+        return resultCache.get(prompt, sourceUrl,
+                () -> clientService.completeAiRequest(prompt, operationType, priority));
+    }
+
+    private Flux<String> streamWithCache(Supplier<String> promptSupplier, String sourceUrl, String operationType,
+                                         Priority priority) {
+        return Flux.defer(() -> {
+            String prompt = promptSupplier.get();
+            return resultCache.getIfPresent(prompt)
+                    .doOnNext(text -> logger.debug("Serving streamed {} from cache", operationType))
+                    .flux()
+                    .switchIfEmpty(Flux.defer(() -> streamAndCache(prompt, sourceUrl, operationType, priority)));
+        });
+    }
+
+    private Flux<String> streamAndCache(String prompt, String sourceUrl, String operationType, Priority priority) {
+        StringBuilder completed = new StringBuilder();
+
+        return clientService.streamAiRequest(prompt, operationType, priority)
+                .doOnNext(completed::append)
+                .doOnComplete(() -> {
+                    resultCache.put(prompt, sourceUrl, completed.toString());
+                    logger.info("Streamed {} completed ({} chars)", operationType, completed.length());
+                })
+                .doOnError(error -> logger.error("Failed to stream {}: {}", operationType, error.getMessage()));
     }
-}
\ No newline at end of file
+}
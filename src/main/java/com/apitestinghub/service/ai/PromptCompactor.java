@@ -0,0 +1,299 @@
+package com.apitestinghub.service.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks request and response payloads so prompts fit a token budget while keeping their structure.
+ * <p>
+ * JSON is re-written in a single streaming pass: long arrays are collapsed to a few leading samples plus
+ * a count, base64-like blobs are replaced by a placeholder and long strings are shortened. Prompts are
+ * rendered at progressively more aggressive {@link Level}s until the estimate fits the budget.
+ * Everything is appended into one per-thread render buffer, so no intermediate strings or trees are built.
+ */
+@Component
+public class PromptCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptCompactor.class);
+
+    private static final Pattern BASE64 = Pattern.compile("^(data:[\\w/+.-]+;base64,)?[A-Za-z0-9+/_-]+={0,2}$");
+    private static final int MIN_BASE64_LENGTH = 64;
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    /**
+     * One compaction setting: array samples kept, longest string kept and the hard cap on a payload.
+     */
+    public record Level(int arraySamples, int maxStringLength, int maxPayloadTokens) { }
+
+    private static final List<Level> LEVELS = List.of(
+            new Level(5, 300, 3000),
+            new Level(3, 160, 1500),
+            new Level(2, 80, 800),
+            new Level(1, 40, 300));
+
+    private final JsonFactory jsonFactory;
+    private final int promptTokenBudget;
+
+    public PromptCompactor(ObjectMapper objectMapper,
+                           @Value("${app.ai.compaction.prompt-token-budget:6000}") int promptTokenBudget) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.promptTokenBudget = promptTokenBudget;
+    }
+
+    /**
+     * Render the prompt at increasing compaction levels and return the first one within the budget.
+     */
+    public String fit(BiConsumer<Level, StringBuilder> renderer) {
+        StringBuilder buffer = RENDER_BUFFER.get();
+        try {
+            long tokens = 0;
+            for (Level level : LEVELS) {
+                buffer.setLength(0);
+                renderer.accept(level, buffer);
+                // No run of characters costs more than one token each, so short prompts need no estimate
+                tokens = buffer.length() <= promptTokenBudget ? buffer.length() : estimateTokens(buffer);
+                if (tokens <= promptTokenBudget) {
+                    return buffer.toString();
+                }
+            }
+            logger.warn("Prompt still estimated at {} tokens after full compaction (budget {})",
+                    tokens, promptTokenBudget);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                RENDER_BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Append a compacted payload: JSON is reduced structurally, anything else is shortened by tokens.
+     */
+    public void appendCompacted(String payload, Level level, StringBuilder out) {
+        String trimmed = payload.trim();
+        int start = out.length();
+        if (!(trimmed.startsWith("{") || trimmed.startsWith("[")) || !appendCompactJson(trimmed, level, out)) {
+            out.setLength(start);
+            out.append(trimmed);
+        }
+        truncateTail(out, start, level.maxPayloadTokens());
+    }
+
+    /**
+     * Append a string map as a JSON object, compacting long or base64-like values.
+     */
+    public void appendJsonObject(Map<String, String> values, Level level, StringBuilder out) {
+        try (JsonGenerator generator = jsonFactory.createGenerator(new BuilderWriter(out))) {
+            generator.writeStartObject();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                if (entry.getValue() == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(compactString(entry.getValue(), level));
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write prompt JSON", e);
+        }
+    }
+
+    /**
+     * Approximate BPE token count: letter runs cost one token per four characters, digit runs one per
+     * three, and every other non-space character costs one. Errs high for JSON punctuation, which
+     * is the safe direction for budgeting.
+     */
+    public static long estimateTokens(CharSequence text) {
+        return estimateTokens(text, 0, text.length());
+    }
+
+    private static long estimateTokens(CharSequence text, int start, int end) {
+        long tokens = 0;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                int runStart = i;
+                while (i < end && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - runStart + 3) / 4;
+            } else if (Character.isDigit(c)) {
+                int runStart = i;
+                while (i < end && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - runStart + 2) / 3;
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    tokens++;
+                }
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Cut the text appended since {@code start} to roughly the given number of tokens,
+     * preferring a line break near the cut.
+     */
+    private static void truncateTail(StringBuilder out, int start, long maxTokens) {
+        if (out.length() - start <= maxTokens) {
+            return;
+        }
+        long tokens = estimateTokens(out, start, out.length());
+        if (tokens <= maxTokens) {
+            return;
+        }
+        int length = out.length() - start;
+        int cut = (int) ((long) length * maxTokens / tokens);
+        int newline = out.lastIndexOf("\n", start + cut) - start;
+        if (newline > cut * 3 / 4) {
+            cut = newline;
+        }
+        out.setLength(start + cut);
+        out.append("\n...(truncated, ").append(length - cut).append(" more chars)");
+    }
+
+    private boolean appendCompactJson(String json, Level level, StringBuilder out) {
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = jsonFactory.createGenerator(new BuilderWriter(out))) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            copy(parser, generator, level);
+            // Trailing content means this was not a single JSON document
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copy the value at the parser's current token, compacting along the way.
+     */
+    private void copy(JsonParser parser, JsonGenerator generator, Level level) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT -> {
+                generator.writeStartObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    generator.writeFieldName(parser.currentName());
+                    parser.nextToken();
+                    copy(parser, generator, level);
+                }
+                generator.writeEndObject();
+            }
+            case START_ARRAY -> copyArray(parser, generator, level);
+            case VALUE_STRING -> generator.writeString(compactString(parser.getText(), level));
+            // Copy numbers verbatim rather than decoding them to double or BigDecimal
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> generator.writeNumber(parser.getText());
+            default -> generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private void copyArray(JsonParser parser, JsonGenerator generator, Level level) throws IOException {
+        generator.writeStartArray();
+        int written = 0;
+        int skipped = 0;
+        JsonToken firstKind = null;
+        boolean homogeneous = true;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (firstKind == null) {
+                firstKind = token;
+            } else if (token != firstKind) {
+                homogeneous = false;
+            }
+            if (written < level.arraySamples()) {
+                copy(parser, generator, level);
+                written++;
+            } else {
+                parser.skipChildren();
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            generator.writeString("...(" + skipped + (homogeneous ? " more similar items" : " more items")
+                    + ", " + (written + skipped) + " total)");
+        }
+        generator.writeEndArray();
+    }
+
+    private String compactString(String value, Level level) {
+        if (looksLikeBase64(value)) {
+            return "<base64, " + value.length() + " chars>";
+        }
+        if (value.length() > level.maxStringLength()) {
+            return value.substring(0, level.maxStringLength())
+                    + "...(+" + (value.length() - level.maxStringLength()) + " chars)";
+        }
+        return value;
+    }
+
+    /**
+     * Long unbroken runs of the base64 alphabet mixing cases and digits; hex digests and words are kept.
+     */
+    private static boolean looksLikeBase64(String value) {
+        if (value.length() < MIN_BASE64_LENGTH || !BASE64.matcher(value).matches()) {
+            return false;
+        }
+        return value.chars().anyMatch(Character::isUpperCase)
+                && value.chars().anyMatch(Character::isLowerCase)
+                && value.chars().anyMatch(Character::isDigit);
+    }
+
+    /**
+     * Unsynchronized writer over the render buffer, for Jackson generators.
+     */
+    private static final class BuilderWriter extends Writer {
+
+        private final StringBuilder out;
+
+        private BuilderWriter(StringBuilder out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            out.append(buffer, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            out.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            out.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
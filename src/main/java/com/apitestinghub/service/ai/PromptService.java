@@ -2,68 +2,116 @@ package com.apitestinghub.service.ai;
 
 import com.apitestinghub.dto.request.ApiRequest;
 import com.apitestinghub.dto.response.ApiExecutionResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.apitestinghub.service.ai.PromptCompactor.Level;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service responsible for formatting and managing AI prompts.
+ * Templates are compiled once at startup into {@link PromptTemplate}s with named slots, and payloads are
+ * compacted by {@link PromptCompactor} so each prompt fits the configured token budget.
  */
 @Service
 public class PromptService {
 
-    private static final int MAX_BODY_LENGTH = 5000;
+    private static final String METHOD = "method";
+    private static final String URL = "url";
+    private static final String REQUEST_HEADERS = "requestHeaders";
+    private static final String QUERY_PARAMS = "queryParams";
+    private static final String REQUEST_BODY = "requestBody";
+    private static final String STATUS_CODE = "statusCode";
+    private static final String STATUS_TEXT = "statusText";
+    private static final String RESPONSE_HEADERS = "responseHeaders";
+    private static final String RESPONSE_BODY = "responseBody";
+    private static final String RESPONSE_TIME_MS = "responseTimeMs";
 
-    private final ObjectMapper objectMapper;
+    private static final List<String> REQUEST_SLOTS =
+            List.of(METHOD, URL, REQUEST_HEADERS, QUERY_PARAMS, REQUEST_BODY);
+    private static final List<String> RESPONSE_SLOTS =
+            List.of(STATUS_CODE, STATUS_TEXT, RESPONSE_HEADERS, RESPONSE_BODY, RESPONSE_TIME_MS);
 
-    @Value("${app.ai.prompts.documentation}")
-    private String documentationPrompt;
+    private final PromptCompactor compactor;
+    private final PromptTemplate documentationTemplate;
+    private final PromptTemplate descriptionTemplate;
+    private final PromptTemplate analysisTemplate;
 
-    @Value("${app.ai.prompts.description}")
-    private String descriptionPrompt;
+    public PromptService(PromptCompactor compactor,
+                         @Value("${app.ai.prompts.documentation}") String documentationPrompt,
+                         @Value("${app.ai.prompts.description}") String descriptionPrompt,
+                         @Value("${app.ai.prompts.analysis}") String analysisPrompt) {
+        this.compactor = compactor;
 
-    @Value("${app.ai.prompts.analysis}")
-    private String analysisPrompt;
-
-    public PromptService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        List<String> documentationSlots = new ArrayList<>(REQUEST_SLOTS);
+        documentationSlots.addAll(RESPONSE_SLOTS);
+        this.documentationTemplate = PromptTemplate.compile("documentation", documentationPrompt,
+                Set.copyOf(documentationSlots), documentationSlots);
+        this.descriptionTemplate = PromptTemplate.compile("description", descriptionPrompt,
+                Set.copyOf(REQUEST_SLOTS), REQUEST_SLOTS);
+        this.analysisTemplate = PromptTemplate.compile("analysis", analysisPrompt,
+                Set.copyOf(RESPONSE_SLOTS), RESPONSE_SLOTS);
     }
 
     public String buildDocumentationPrompt(ApiRequest request, ApiExecutionResponse response) {
-        return String.format(documentationPrompt,
-                request.method(), request.url(), formatHeaders(request.headers()),
-                formatQueryParams(request.queryParams()), formatBody(request.body()),
-                response.statusCode(), response.statusText(), formatHeaders(response.headers()),
-                formatBody(response.body()), response.responseTimeMs());
+        return compactor.fit((level, out) -> documentationTemplate.render(out, (slot, buffer) -> {
+            if (!appendRequestSlot(slot, request, level, buffer)) {
+                appendResponseSlot(slot, response, level, buffer);
+            }
+        }));
     }
 
     public String buildDescriptionPrompt(ApiRequest request) {
-        return String.format(descriptionPrompt,
-                request.method(), request.url(), formatHeaders(request.headers()),
-                formatQueryParams(request.queryParams()), formatBody(request.body()));
+        return compactor.fit((level, out) -> descriptionTemplate.render(out,
+                (slot, buffer) -> appendRequestSlot(slot, request, level, buffer)));
     }
 
     public String buildAnalysisPrompt(ApiExecutionResponse response) {
-        return String.format(analysisPrompt,
-                response.statusCode(), response.statusText(), formatHeaders(response.headers()),
-                formatBody(response.body()), response.responseTimeMs());
+        return compactor.fit((level, out) -> analysisTemplate.render(out,
+                (slot, buffer) -> appendResponseSlot(slot, response, level, buffer)));
+    }
+
+    private boolean appendRequestSlot(String slot, ApiRequest request, Level level, StringBuilder out) {
+        switch (slot) {
+            case METHOD -> out.append(request.method());
+            case URL -> out.append(request.url());
+            case REQUEST_HEADERS -> appendMap(request.headers(), level, out);
+            case QUERY_PARAMS -> appendMap(request.queryParams(), level, out);
+            case REQUEST_BODY -> appendBody(request.body(), level, out);
+            default -> {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private String formatHeaders(Map<String, String> headers) {
-        if (headers == null || headers.isEmpty()) return "{}";
-        return objectMapper.valueToTree(headers).toString();
+    private void appendResponseSlot(String slot, ApiExecutionResponse response, Level level, StringBuilder out) {
+        switch (slot) {
+            case STATUS_CODE -> out.append(response.statusCode());
+            case STATUS_TEXT -> out.append(response.statusText());
+            case RESPONSE_HEADERS -> appendMap(response.headers(), level, out);
+            case RESPONSE_BODY -> appendBody(response.body(), level, out);
+            case RESPONSE_TIME_MS -> out.append(response.responseTimeMs());
+            default -> throw new IllegalStateException("Unbound prompt slot " + slot);
+        }
     }
 
-    private String formatQueryParams(Map<String, String> queryParams) {
-        if (queryParams == null || queryParams.isEmpty()) return "{}";
-        return objectMapper.valueToTree(queryParams).toString();
+    private void appendMap(Map<String, String> values, Level level, StringBuilder out) {
+        if (values == null || values.isEmpty()) {
+            out.append("{}");
+            return;
+        }
+        compactor.appendJsonObject(values, level, out);
     }
 
-    private String formatBody(String body) {
-        if (body == null || body.trim().isEmpty()) return "(empty)";
-        return body.length() > MAX_BODY_LENGTH ?
-                body.substring(0, MAX_BODY_LENGTH - 3) + "..." : body;
+    private void appendBody(String body, Level level, StringBuilder out) {
+        if (body == null || body.trim().isEmpty()) {
+            out.append("(empty)");
+            return;
+        }
+        compactor.appendCompacted(body, level, out);
     }
-}
\ No newline at end of file
+}
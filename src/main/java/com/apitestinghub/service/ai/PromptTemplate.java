@@ -0,0 +1,106 @@
+package com.apitestinghub.service.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Prompt template parsed once into literal segments and named slots.
+ * <p>
+ * Slots are written as {@code {{name}}} and may appear in any order or more than once. Templates still
+ * using positional {@code %s}/{@code %d} placeholders are accepted and bound to the legacy slot order,
+ * so existing overrides keep working. Rendering appends straight into the caller's buffer.
+ */
+public final class PromptTemplate {
+
+    private static final String SLOT_OPEN = "{{";
+    private static final String SLOT_CLOSE = "}}";
+
+    private final String[] literals;
+    private final String[] slots;
+
+    private PromptTemplate(List<String> literals, List<String> slots) {
+        this.literals = literals.toArray(String[]::new);
+        this.slots = slots.toArray(String[]::new);
+    }
+
+    /**
+     * Parse a template, rejecting slots outside {@code allowedSlots} so typos fail at startup.
+     *
+     * @param legacyOrder slot names bound to positional placeholders, in order of appearance
+     */
+    public static PromptTemplate compile(String name, String template, Set<String> allowedSlots,
+                                         List<String> legacyOrder) {
+        return template.contains(SLOT_OPEN)
+                ? compileNamed(name, template, allowedSlots)
+                : compileLegacy(name, template, legacyOrder);
+    }
+
+    /**
+     * Append the template to {@code out}, asking {@code slotWriter} to append each slot's value.
+     */
+    public void render(StringBuilder out, BiConsumer<String, StringBuilder> slotWriter) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            slotWriter.accept(slots[i], out);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private static PromptTemplate compileNamed(String name, String template, Set<String> allowedSlots) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+
+        int open;
+        while ((open = template.indexOf(SLOT_OPEN, position)) >= 0) {
+            int close = template.indexOf(SLOT_CLOSE, open + SLOT_OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed slot in prompt template '" + name + "' at offset " + open);
+            }
+            String slot = template.substring(open + SLOT_OPEN.length(), close).trim();
+            if (!allowedSlots.contains(slot)) {
+                throw new IllegalStateException("Unknown slot {{" + slot + "}} in prompt template '" + name
+                        + "'; expected one of " + allowedSlots);
+            }
+            literals.add(template.substring(position, open));
+            slots.add(slot);
+            position = close + SLOT_CLOSE.length();
+        }
+        literals.add(template.substring(position));
+        return new PromptTemplate(literals, slots);
+    }
+
+    private static PromptTemplate compileLegacy(String name, String template, List<String> legacyOrder) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%' || i + 1 >= template.length()) {
+                literal.append(c);
+                continue;
+            }
+            char conversion = template.charAt(++i);
+            if (conversion == '%') {
+                literal.append('%');
+            } else if (conversion == 'n') {
+                literal.append(System.lineSeparator());
+            } else if (conversion == 's' || conversion == 'd') {
+                if (slots.size() >= legacyOrder.size()) {
+                    throw new IllegalStateException("Too many placeholders in prompt template '" + name + "'");
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(legacyOrder.get(slots.size()));
+            } else {
+                throw new IllegalStateException("Unsupported placeholder %" + conversion
+                        + " in prompt template '" + name + "'");
+            }
+        }
+        literals.add(literal.toString());
+        return new PromptTemplate(literals, slots);
+    }
+}
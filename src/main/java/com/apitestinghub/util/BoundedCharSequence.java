@@ -0,0 +1,64 @@
+package com.apitestinghub.util;
+
+/**
+ * Character sequence that fails once more than a fixed number of characters have been read from it.
+ * <p>
+ * Regex matching reads its input through {@link #charAt}, and a backtracking pattern reads the same
+ * characters over and over, so the budget bounds how long a user-supplied pattern can run. Views
+ * returned by {@link #subSequence} share the budget of the sequence they came from.
+ */
+public final class BoundedCharSequence implements CharSequence {
+
+    /**
+     * Thrown from {@link #charAt} once the budget is spent.
+     */
+    public static final class BudgetExceededException extends RuntimeException {
+        public BudgetExceededException(long budget) {
+            super("Exceeded " + budget + " character reads", null, false, false);
+        }
+    }
+
+    private final CharSequence text;
+    private final int offset;
+    private final int length;
+    private final long budget;
+    private final long[] remaining;
+
+    public BoundedCharSequence(CharSequence text, long budget) {
+        this(text, 0, text.length(), budget, new long[]{budget});
+    }
+
+    private BoundedCharSequence(CharSequence text, int offset, int length, long budget, long[] remaining) {
+        this.text = text;
+        this.offset = offset;
+        this.length = length;
+        this.budget = budget;
+        this.remaining = remaining;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--remaining[0] < 0) {
+            throw new BudgetExceededException(budget);
+        }
+        return text.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new BoundedCharSequence(text, offset + start, end - start, budget, remaining);
+    }
+
+    @Override
+    public String toString() {
+        return text.subSequence(offset, offset + length).toString();
+    }
+}
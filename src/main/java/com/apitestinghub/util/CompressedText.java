@@ -0,0 +1,129 @@
+package com.apitestinghub.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable UTF-8 text, stored deflated when that makes it smaller.
+ * <p>
+ * Short text is kept as plain bytes since it rarely shrinks. Compression uses the fastest level because
+ * it runs once per stored text, while decompression only happens when the text is read back.
+ */
+public final class CompressedText {
+
+    private static final int MIN_COMPRESSIBLE_BYTES = 512;
+
+    private final byte[] data;
+    private final int originalBytes;
+    private final boolean deflated;
+
+    private CompressedText(byte[] data, int originalBytes, boolean deflated) {
+        this.data = data;
+        this.originalBytes = originalBytes;
+        this.deflated = deflated;
+    }
+
+    /**
+     * @return the compressed text, or {@code null} for {@code null}
+     */
+    public static CompressedText of(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_COMPRESSIBLE_BYTES) {
+            return new CompressedText(bytes, bytes.length, false);
+        }
+        byte[] compressed = deflate(bytes);
+        return compressed.length < bytes.length
+                ? new CompressedText(compressed, bytes.length, true)
+                : new CompressedText(bytes, bytes.length, false);
+    }
+
+    /**
+     * Keep the text as plain bytes, for when compressing it now would cost too much.
+     *
+     * @return the text, or {@code null} for {@code null}
+     */
+    public static CompressedText plain(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new CompressedText(bytes, bytes.length, false);
+    }
+
+    public String text() {
+        return new String(deflated ? inflate(data, originalBytes) : data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the text back incrementally, without materializing it.
+     */
+    public Reader reader() {
+        InputStream bytes = new ByteArrayInputStream(data);
+        return new InputStreamReader(deflated ? new InflaterInputStream(bytes) : bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Size of the text in UTF-8.
+     */
+    public int originalBytes() {
+        return originalBytes;
+    }
+
+    /**
+     * Bytes actually held.
+     */
+    public int storedBytes() {
+        return data.length;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int originalBytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] bytes = new byte[originalBytes];
+            int read = 0;
+            while (read < originalBytes && !inflater.finished()) {
+                int n = inflater.inflate(bytes, read, originalBytes - read);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalBytes) {
+                throw new IllegalStateException("Compressed text is truncated");
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.apitestinghub.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free keyed rate limiter using the generic cell rate algorithm (GCRA).
+ * <p>
+ * Each key is a single theoretical arrival time advanced by compare-and-set, so an acquire is one map
+ * lookup and one CAS with no locks or refill timers. A key whose arrival time has passed has its full
+ * burst available again and is indistinguishable from a new one, which is what {@link #evictIdle()} drops.
+ * Keys beyond the maximum share a single overflow bucket until idle ones are evicted.
+ */
+public class GcraRateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long maximumKeys;
+    private final Map<String, AtomicLong> arrivals;
+    // Kept out of the map so no real key, including an empty one, can share it
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            permits a fresh or fully idle key may take at once
+     * @param maximumKeys      bound on tracked keys
+     */
+    public GcraRateLimiter(double permitsPerSecond, int burst, long maximumKeys) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maximumKeys <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and maximumKeys must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maximumKeys = maximumKeys;
+        this.arrivals = new ConcurrentHashMap<>((int) Math.min(maximumKeys, 1 << 16));
+    }
+
+    /**
+     * Take a permit for {@code key} if one is available.
+     *
+     * @return {@code 0} if the permit was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            arrival = arrivals.size() < maximumKeys
+                    ? arrivals.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE))
+                    : overflow;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long theoretical = arrival.get();
+            long start = Math.max(theoretical, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(theoretical, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by {@link #tryAcquire} that was not used, for example because another limit
+     * rejected the call. Does nothing if the key has been evicted since.
+     */
+    public void release(String key) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            arrival = overflow;
+        }
+        arrival.updateAndGet(theoretical -> theoretical == Long.MIN_VALUE ? theoretical : theoretical - intervalNanos);
+    }
+
+    /**
+     * Drop keys that have their full burst available again.
+     * <p>
+     * A permit taken concurrently on a key being dropped is forgotten, so that key may get at most
+     * one permit over its burst.
+     *
+     * @return number of keys dropped
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : arrivals.entrySet()) {
+            AtomicLong arrival = entry.getValue();
+            if (arrival.get() - now <= 0 && arrivals.remove(entry.getKey(), arrival)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Time for an exhausted key to refill its whole burst, and so the longest a key can stay non-idle.
+     */
+    public long refillNanos() {
+        return intervalNanos + toleranceNanos;
+    }
+
+    /**
+     * Approximate number of keys currently tracked.
+     */
+    public long trackedKeys() {
+        return arrivals.size();
+    }
+}
@@ -0,0 +1,197 @@
+package com.apitestinghub.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of long-lived timers driven by a single periodic tick.
+ * <p>
+ * Level 0 has {@code wheelSize} slots of {@code tickMillis}; each further level has slots as wide as a
+ * full turn of the level below and is added only when a deadline needs it. Scheduling and cancelling
+ * are O(1), and a tick only touches the slot that is due plus, once per turn of a lower level, one slot
+ * of the level above, whose timers move down. Timers fire on the first tick at or after their deadline,
+ * never early, and never more than one tick late while the owner keeps calling {@link #advanceTo}.
+ * <p>
+ * Thread-safe; due tasks are returned to the caller instead of being run under the lock.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadline;
+        private Slot<T> slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = tail;
+            if (tail != null) {
+                tail.next = timeout;
+            } else {
+                head = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Detach every timeout, returning the first of a chain linked through {@code next}.
+         */
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.slot = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Slot<T>[]> levels = new ArrayList<>();
+    private final List<Long> levelTicks = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel must have at least 2 slots");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        addLevel(tickMillis);
+    }
+
+    /**
+     * Schedule {@code task} for {@code deadlineMillis}. Deadlines already in the past fire on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return {@code false} if the timeout already fired or was cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to {@code nowMillis}.
+     *
+     * @return tasks whose deadline has passed, in slot order
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            // Highest level first, so timers moving down several levels land in slots that are cascaded next
+            for (int level = levels.size() - 1; level > 0; level--) {
+                long tick = levelTicks.get(level);
+                if (currentTime % tick == 0) {
+                    for (Timeout<T> timeout = levels.get(level)[slotIndex(currentTime, tick)].drain(); timeout != null; ) {
+                        Timeout<T> next = timeout.next;
+                        timeout.previous = null;
+                        timeout.next = null;
+                        place(timeout);
+                        timeout = next;
+                    }
+                }
+            }
+
+            for (Timeout<T> timeout = levels.get(0)[slotIndex(currentTime, tickMillis)].drain(); timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                timeout.previous = null;
+                timeout.next = null;
+                due.add(timeout.task);
+                size--;
+                timeout = next;
+            }
+            currentTime += tickMillis;
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = Math.min(Math.max(timeout.deadline, currentTime), Long.MAX_VALUE - 1);
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                long below = levelTicks.get(level - 1);
+                addLevel(below > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : below * wheelSize);
+            }
+            long tick = levelTicks.get(level);
+            long levelStart = currentTime - currentTime % tick;
+            long span = tick > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : tick * wheelSize;
+            // A deadline inside this level's current slot is always caught by the level below
+            if (deadline - levelStart < span) {
+                levels.get(level)[slotIndex(deadline, tick)].add(timeout);
+                return;
+            }
+        }
+    }
+
+    private int slotIndex(long time, long tick) {
+        return (int) ((time / tick) % wheelSize);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addLevel(long tick) {
+        Slot<T>[] slots = new Slot[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new Slot<>();
+        }
+        levels.add(slots);
+        levelTicks.add(tick);
+    }
+}
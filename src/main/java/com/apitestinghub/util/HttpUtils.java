@@ -0,0 +1,46 @@
+package com.apitestinghub.util;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Small helpers shared by the services that key work by target host or read response headers.
+ */
+public final class HttpUtils {
+
+    private HttpUtils() {
+    }
+
+    /**
+     * Lower-cased host of {@code url}, used as the key for per-host limits.
+     *
+     * @return the host, or an empty string if the URL is invalid or has no host; such URLs fail
+     * validation anyway, so they can share one bucket
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Value of the first header whose name matches {@code name} ignoring case.
+     */
+    public static Optional<String> header(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+        return headers.entrySet().stream()
+                .filter(header -> name.equalsIgnoreCase(header.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+}
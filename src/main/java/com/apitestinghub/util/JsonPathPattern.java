@@ -0,0 +1,190 @@
+package com.apitestinghub.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A small JSONPath subset for selecting body paths, such as volatile fields to leave out of a comparison.
+ * <p>
+ * Supported: {@code $.a.b}, {@code $.items[0]}, {@code $.items[*].id}, {@code $.*.id} and the descendant
+ * form {@code $..id}. The leading {@code $} is optional. JSON Pointers ({@code /items/0/id}) compile to
+ * the same steps through {@link #compilePointer(String)}. Path segments are field names ({@link String})
+ * and array indices ({@link Integer}), from the root down.
+ */
+public final class JsonPathPattern {
+
+    /**
+     * One path step. A {@code null} field or index is a wildcard of that kind. Pointer tokens made of
+     * digits set both, since {@code /0} selects an array element or a field named {@code "0"}.
+     */
+    private record Step(boolean descendant, boolean indexStep, String field, Integer index) {
+
+        static Step field(boolean descendant, String field) {
+            return new Step(descendant, false, field, null);
+        }
+
+        static Step anyField(boolean descendant) {
+            return new Step(descendant, false, null, null);
+        }
+
+        static Step index(boolean descendant, int index) {
+            return new Step(descendant, true, null, index);
+        }
+
+        static Step anyIndex(boolean descendant) {
+            return new Step(descendant, true, null, null);
+        }
+
+        static Step pointerToken(String token) {
+            boolean isIndex = token.matches("0|[1-9][0-9]{0,8}");
+            return new Step(false, false, token, isIndex ? Integer.valueOf(token) : null);
+        }
+
+        boolean matches(Object segment) {
+            if (indexStep) {
+                return segment instanceof Integer i && (index == null || index.equals(i));
+            }
+            if (segment instanceof Integer i) {
+                return field != null && index != null && index.equals(i);
+            }
+            return segment instanceof String name && (field == null || field.equals(name));
+        }
+
+        boolean wildcard() {
+            return descendant || (field == null && index == null);
+        }
+    }
+
+    private final String expression;
+    private final List<Step> steps;
+
+    private JsonPathPattern(String expression, List<Step> steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is not in the supported subset
+     */
+    public static JsonPathPattern compile(String expression) {
+        String path = expression.trim();
+        int i = path.startsWith("$") ? 1 : 0;
+        List<Step> steps = new ArrayList<>();
+        boolean first = true;
+        while (i < path.length()) {
+            boolean descendant = false;
+            char c = path.charAt(i);
+            if (path.startsWith("..", i)) {
+                descendant = true;
+                i += 2;
+            } else if (c == '.') {
+                i++;
+            } else if (c != '[' && !(first && i == 0)) {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at " + i + " in " + expression);
+            }
+            first = false;
+
+            if (i < path.length() && path.charAt(i) == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed '[' in " + expression);
+                }
+                String index = path.substring(i + 1, end).trim();
+                try {
+                    steps.add(index.equals("*")
+                            ? Step.anyIndex(descendant)
+                            : Step.index(descendant, Integer.parseInt(index)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid array index '" + index + "' in " + expression);
+                }
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                String field = path.substring(i, end);
+                if (field.isEmpty()) {
+                    throw new IllegalArgumentException("Empty field name at " + i + " in " + expression);
+                }
+                steps.add(field.equals("*") ? Step.anyField(descendant) : Step.field(descendant, field));
+                i = end;
+            }
+        }
+        return new JsonPathPattern(expression, List.copyOf(steps));
+    }
+
+    /**
+     * Compile an RFC 6901 JSON Pointer; the empty pointer selects the whole document.
+     *
+     * @throws IllegalArgumentException if the pointer does not start with {@code /}
+     */
+    public static JsonPathPattern compilePointer(String pointer) {
+        if (pointer.isEmpty()) {
+            return new JsonPathPattern(pointer, List.of());
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("JSON Pointer must start with '/': " + pointer);
+        }
+        List<Step> steps = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1)) {
+            steps.add(Step.pointerToken(token.replace("~1", "/").replace("~0", "~")));
+        }
+        return new JsonPathPattern(pointer, List.copyOf(steps));
+    }
+
+    public boolean matches(List<Object> path) {
+        return matches(0, path, 0);
+    }
+
+    /**
+     * Whether some value nested below {@code path} could match, so a reader can skip subtrees that cannot.
+     */
+    public boolean mayMatchBelow(List<Object> path) {
+        return mayMatchBelow(0, path, 0);
+    }
+
+    /**
+     * Whether the pattern selects at most one value, i.e. has no wildcard or descendant step.
+     */
+    public boolean isDefinite() {
+        return steps.stream().noneMatch(Step::wildcard);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean matches(int step, List<Object> path, int segment) {
+        if (step == steps.size()) {
+            return segment == path.size();
+        }
+        Step current = steps.get(step);
+        if (!current.descendant()) {
+            return segment < path.size() && current.matches(path.get(segment))
+                    && matches(step + 1, path, segment + 1);
+        }
+        for (int k = segment; k < path.size(); k++) {
+            if (current.matches(path.get(k)) && matches(step + 1, path, k + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mayMatchBelow(int step, List<Object> path, int segment) {
+        if (step == steps.size()) {
+            return false;
+        }
+        if (segment == path.size()) {
+            return true;
+        }
+        Step current = steps.get(step);
+        if (current.descendant()) {
+            // The descendant step may consume any deeper segment
+            return true;
+        }
+        return current.matches(path.get(segment)) && mayMatchBelow(step + 1, path, segment + 1);
+    }
+}
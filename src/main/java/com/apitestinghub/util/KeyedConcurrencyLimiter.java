@@ -0,0 +1,96 @@
+package com.apitestinghub.util;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking limiter for the number of concurrently running tasks per key.
+ * <p>
+ * Tasks over the limit wait in FIFO order without holding a thread. Gates are never
+ * evicted, so an instance should be scoped to a bounded unit of work such as one batch.
+ */
+public class KeyedConcurrencyLimiter {
+
+    private final int permitsPerKey;
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+
+    public KeyedConcurrencyLimiter(int permitsPerKey) {
+        if (permitsPerKey <= 0) {
+            throw new IllegalArgumentException("permitsPerKey must be positive");
+        }
+        this.permitsPerKey = permitsPerKey;
+    }
+
+    /**
+     * Run the task once a permit for the key is available, releasing it on completion, error or cancel.
+     */
+    public <T> Mono<T> limit(String key, Supplier<Mono<T>> task) {
+        return Mono.defer(() -> {
+            Gate gate = gates.computeIfAbsent(key, k -> new Gate(permitsPerKey));
+            Ticket ticket = new Ticket();
+            return gate.acquire(ticket)
+                    .then(Mono.defer(task))
+                    .doFinally(signal -> gate.finish(ticket));
+        });
+    }
+
+    private static final class Ticket {
+        private MonoSink<Void> sink;
+        private boolean granted;
+    }
+
+    private static final class Gate {
+
+        private final Deque<Ticket> waiting = new ArrayDeque<>();
+        private int available;
+
+        private Gate(int permits) {
+            this.available = permits;
+        }
+
+        Mono<Void> acquire(Ticket ticket) {
+            return Mono.create(sink -> {
+                boolean granted;
+                synchronized (this) {
+                    ticket.sink = sink;
+                    granted = available > 0;
+                    if (granted) {
+                        available--;
+                        ticket.granted = true;
+                    } else {
+                        waiting.add(ticket);
+                    }
+                }
+                if (granted) {
+                    sink.success();
+                }
+            });
+        }
+
+        void finish(Ticket ticket) {
+            Ticket next;
+            synchronized (this) {
+                if (!ticket.granted) {
+                    // Cancelled while still queued
+                    waiting.remove(ticket);
+                    return;
+                }
+                next = waiting.poll();
+                if (next != null) {
+                    next.granted = true;
+                } else {
+                    available++;
+                }
+            }
+            if (next != null) {
+                next.sink.success();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.apitestinghub.util;
+
+import com.apitestinghub.dto.response.ExecutionTimings;
+
+/**
+ * Collects phase timestamps for a single request execution.
+ * <p>
+ * An instance travels in the Reactor context under {@link #CONTEXT_KEY} and is filled in by the
+ * connection hooks installed in {@link com.apitestinghub.config.ConnectionTimingInstrumentation}.
+ * All timestamps come from {@link System#nanoTime()}; zero means the phase was not observed.
+ */
+public class RequestTimingRecorder {
+
+    public static final String CONTEXT_KEY = RequestTimingRecorder.class.getName();
+
+    private volatile long startNanos;
+    private volatile long requestStartNanos;
+    private volatile long requestSentNanos;
+    private volatile long responseHeadersNanos;
+    private volatile long responseEndNanos;
+    private volatile long dnsResolutionNanos;
+    private volatile long tcpConnectNanos;
+    private volatile long tlsHandshakeNanos;
+    private volatile boolean connectionReused;
+
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public void requestStarted(ConnectionTimings connection) {
+        requestStartNanos = System.nanoTime();
+        requestSentNanos = 0;
+        responseHeadersNanos = 0;
+        responseEndNanos = 0;
+
+        // A connection only reports setup phases for the first request sent over it
+        connectionReused = connection == null || connection.markUsed();
+        if (!connectionReused) {
+            dnsResolutionNanos = connection.dnsResolutionNanos();
+            tcpConnectNanos = connection.tcpConnectNanos();
+            tlsHandshakeNanos = connection.tlsHandshakeNanos();
+        } else {
+            dnsResolutionNanos = 0;
+            tcpConnectNanos = 0;
+            tlsHandshakeNanos = 0;
+        }
+    }
+
+    public void requestSent() {
+        requestSentNanos = System.nanoTime();
+    }
+
+    public void responseHeadersReceived() {
+        responseHeadersNanos = System.nanoTime();
+    }
+
+    public void responseCompleted() {
+        responseEndNanos = System.nanoTime();
+    }
+
+    /**
+     * Total elapsed time since {@link #start()}, in milliseconds.
+     */
+    public long elapsedMillis() {
+        return elapsedNanos() / 1_000_000;
+    }
+
+    /**
+     * Total elapsed time since {@link #start()}, in nanoseconds.
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Build the timing breakdown. Phases still in progress are closed at the current time.
+     */
+    public ExecutionTimings snapshot() {
+        long now = System.nanoTime();
+        long responseEnd = responseEndNanos != 0 ? responseEndNanos : now;
+
+        return new ExecutionTimings(
+                connectionReused ? null : positiveOrNull(dnsResolutionNanos),
+                connectionReused ? null : positiveOrNull(tcpConnectNanos),
+                connectionReused ? null : positiveOrNull(tlsHandshakeNanos),
+                between(startNanos, requestStartNanos),
+                between(requestStartNanos, requestSentNanos),
+                between(requestSentNanos, responseHeadersNanos),
+                between(responseHeadersNanos, responseEnd),
+                now - startNanos,
+                connectionReused
+        );
+    }
+
+    private static Long between(long from, long to) {
+        return from != 0 && to != 0 ? Math.max(to - from, 0) : null;
+    }
+
+    private static Long positiveOrNull(long value) {
+        return value > 0 ? value : null;
+    }
+
+    /**
+     * Setup timestamps of one physical connection, stored as a channel attribute.
+     */
+    public static class ConnectionTimings {
+
+        private final long createdNanos = System.nanoTime();
+        private volatile long resolveStartNanos;
+        private volatile long resolveEndNanos;
+        private volatile long connectedNanos;
+        private volatile long tlsStartNanos;
+        private volatile long tlsEndNanos;
+        private boolean used;
+
+        public void resolveStarted() {
+            resolveStartNanos = System.nanoTime();
+        }
+
+        public void resolveCompleted() {
+            resolveEndNanos = System.nanoTime();
+        }
+
+        public void connected() {
+            connectedNanos = System.nanoTime();
+        }
+
+        public void tlsStarted() {
+            tlsStartNanos = System.nanoTime();
+        }
+
+        public void tlsCompleted() {
+            tlsEndNanos = System.nanoTime();
+        }
+
+        synchronized boolean markUsed() {
+            boolean wasUsed = used;
+            used = true;
+            return wasUsed;
+        }
+
+        long dnsResolutionNanos() {
+            return resolveStartNanos != 0 && resolveEndNanos != 0 ? resolveEndNanos - resolveStartNanos : 0;
+        }
+
+        long tcpConnectNanos() {
+            long connectStart = resolveEndNanos != 0 ? resolveEndNanos : createdNanos;
+            return connectedNanos != 0 ? connectedNanos - connectStart : 0;
+        }
+
+        long tlsHandshakeNanos() {
+            return tlsStartNanos != 0 && tlsEndNanos != 0 ? tlsEndNanos - tlsStartNanos : 0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.apitestinghub.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural diff of two JSON documents, computed while both are tokenized side by side.
+ * <p>
+ * Neither document is built as a tree. Objects whose fields appear in the same order, and arrays, are
+ * compared in lockstep; only fields that appear out of order are buffered as tokens until their
+ * counterpart shows up. Ignored paths are skipped without being compared, and the walk stops as soon
+ * as the difference limit is reached.
+ */
+public class StreamingJsonDiff {
+
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    /**
+     * One difference. {@code before} and {@code after} are JSON snippets, {@code null} for the missing side.
+     */
+    public record Change(Kind kind, String path, String before, String after) { }
+
+    /**
+     * Differences found, and whether the walk stopped at the limit.
+     */
+    public record Result(List<Change> changes, boolean truncated) { }
+
+    private static final int MAX_SNIPPET_LENGTH = 200;
+
+    private final JsonFactory jsonFactory;
+    private final List<JsonPathPattern> ignoredPaths;
+    private final int maxChanges;
+
+    public StreamingJsonDiff(JsonFactory jsonFactory, List<JsonPathPattern> ignoredPaths, int maxChanges) {
+        this.jsonFactory = jsonFactory;
+        this.ignoredPaths = ignoredPaths;
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * Compare two documents. Both must hold a single JSON object or array at the top level.
+     *
+     * @throws IOException if either is not well-formed JSON, if the top level is a scalar, or if anything
+     *                     follows the top-level value
+     */
+    public Result diff(Reader before, Reader after) throws IOException {
+        try (JsonParser a = jsonFactory.createParser(before); JsonParser b = jsonFactory.createParser(after)) {
+            JsonToken first = a.nextToken();
+            JsonToken second = b.nextToken();
+            if (!isContainer(first) || !isContainer(second)) {
+                throw new IOException("Not a JSON object or array");
+            }
+            Walk walk = new Walk();
+            try {
+                walk.value(a, b);
+            } catch (LimitReached e) {
+                return new Result(walk.changes, true);
+            }
+            if (a.nextToken() != null || b.nextToken() != null) {
+                throw new IOException("Unexpected content after the top-level value");
+            }
+            return new Result(walk.changes, false);
+        }
+    }
+
+    private static boolean isContainer(JsonToken token) {
+        return token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+    }
+
+    private static final class LimitReached extends RuntimeException {
+        LimitReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * State of one comparison: the current path and the differences so far.
+     */
+    private final class Walk {
+
+        private final List<Object> path = new ArrayList<>();
+        private final List<Change> changes = new ArrayList<>();
+
+        void value(JsonParser a, JsonParser b) throws IOException {
+            if (ignored()) {
+                a.skipChildren();
+                b.skipChildren();
+                return;
+            }
+            JsonToken ta = a.currentToken();
+            JsonToken tb = b.currentToken();
+            if (ta == JsonToken.START_OBJECT && tb == JsonToken.START_OBJECT) {
+                object(a, b);
+            } else if (ta == JsonToken.START_ARRAY && tb == JsonToken.START_ARRAY) {
+                array(a, b);
+            } else if (ta.isScalarValue() && tb.isScalarValue()) {
+                if (!scalarEquals(a, b)) {
+                    report(Kind.CHANGED, snippet(a), snippet(b));
+                }
+            } else {
+                report(Kind.CHANGED, snippet(a), snippet(b));
+            }
+        }
+
+        private void object(JsonParser a, JsonParser b) throws IOException {
+            Map<String, TokenBuffer> pendingBefore = new LinkedHashMap<>();
+            Map<String, TokenBuffer> pendingAfter = new LinkedHashMap<>();
+
+            JsonToken ta = a.nextToken();
+            JsonToken tb = b.nextToken();
+            while (ta == JsonToken.FIELD_NAME || tb == JsonToken.FIELD_NAME) {
+                if (ta == JsonToken.FIELD_NAME && tb == JsonToken.FIELD_NAME
+                        && a.currentName().equals(b.currentName())) {
+                    path.add(a.currentName());
+                    a.nextToken();
+                    b.nextToken();
+                    value(a, b);
+                    path.remove(path.size() - 1);
+                    ta = a.nextToken();
+                    tb = b.nextToken();
+                    continue;
+                }
+                if (ta == JsonToken.FIELD_NAME) {
+                    String name = a.currentName();
+                    a.nextToken();
+                    TokenBuffer counterpart = pendingAfter.remove(name);
+                    if (counterpart != null) {
+                        path.add(name);
+                        value(a, replay(counterpart));
+                        path.remove(path.size() - 1);
+                    } else {
+                        pendingBefore.put(name, buffer(a));
+                    }
+                    ta = a.nextToken();
+                }
+                if (tb == JsonToken.FIELD_NAME) {
+                    String name = b.currentName();
+                    b.nextToken();
+                    TokenBuffer counterpart = pendingBefore.remove(name);
+                    if (counterpart != null) {
+                        path.add(name);
+                        value(replay(counterpart), b);
+                        path.remove(path.size() - 1);
+                    } else {
+                        pendingAfter.put(name, buffer(b));
+                    }
+                    tb = b.nextToken();
+                }
+            }
+
+            for (Map.Entry<String, TokenBuffer> removed : pendingBefore.entrySet()) {
+                path.add(removed.getKey());
+                if (!ignored()) {
+                    report(Kind.REMOVED, snippet(replay(removed.getValue())), null);
+                }
+                path.remove(path.size() - 1);
+            }
+            for (Map.Entry<String, TokenBuffer> added : pendingAfter.entrySet()) {
+                path.add(added.getKey());
+                if (!ignored()) {
+                    report(Kind.ADDED, null, snippet(replay(added.getValue())));
+                }
+                path.remove(path.size() - 1);
+            }
+        }
+
+        private void array(JsonParser a, JsonParser b) throws IOException {
+            int index = 0;
+            JsonToken ta = a.nextToken();
+            JsonToken tb = b.nextToken();
+            while (ta != JsonToken.END_ARRAY && tb != JsonToken.END_ARRAY) {
+                path.add(index++);
+                value(a, b);
+                path.remove(path.size() - 1);
+                ta = a.nextToken();
+                tb = b.nextToken();
+            }
+            for (; ta != JsonToken.END_ARRAY; ta = a.nextToken()) {
+                path.add(index++);
+                if (ignored()) {
+                    a.skipChildren();
+                } else {
+                    report(Kind.REMOVED, snippet(a), null);
+                }
+                path.remove(path.size() - 1);
+            }
+            for (; tb != JsonToken.END_ARRAY; tb = b.nextToken()) {
+                path.add(index++);
+                if (ignored()) {
+                    b.skipChildren();
+                } else {
+                    report(Kind.ADDED, null, snippet(b));
+                }
+                path.remove(path.size() - 1);
+            }
+        }
+
+        private boolean ignored() {
+            for (JsonPathPattern pattern : ignoredPaths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void report(Kind kind, String before, String after) {
+            if (changes.size() >= maxChanges) {
+                throw new LimitReached();
+            }
+            changes.add(new Change(kind, pathString(), before, after));
+        }
+
+        private String pathString() {
+            StringBuilder out = new StringBuilder("$");
+            for (Object segment : path) {
+                if (segment instanceof Integer index) {
+                    out.append('[').append(index).append(']');
+                } else {
+                    out.append('.').append(segment);
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    private static TokenBuffer buffer(JsonParser parser) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser, null);
+        buffer.copyCurrentStructure(parser);
+        return buffer;
+    }
+
+    private static JsonParser replay(TokenBuffer buffer) throws IOException {
+        JsonParser parser = buffer.asParser();
+        parser.nextToken();
+        return parser;
+    }
+
+    private static boolean scalarEquals(JsonParser a, JsonParser b) throws IOException {
+        JsonToken ta = a.currentToken();
+        JsonToken tb = b.currentToken();
+        if (ta.isNumeric() && tb.isNumeric()) {
+            return ta == tb && ta == JsonToken.VALUE_NUMBER_INT
+                    ? a.getText().equals(b.getText())
+                    : a.getDecimalValue().compareTo(b.getDecimalValue()) == 0;
+        }
+        if (ta != tb) {
+            return false;
+        }
+        return ta != JsonToken.VALUE_STRING || a.getText().equals(b.getText());
+    }
+
+    /**
+     * Short JSON rendering of the current value; containers are skipped and shown by their size.
+     */
+    private static String snippet(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            int children = 0;
+            int depth = 0;
+            for (JsonToken t = parser.nextToken(); !(depth == 0 && t.isStructEnd()); t = parser.nextToken()) {
+                if (depth == 0 && t != JsonToken.FIELD_NAME) {
+                    children++;
+                }
+                if (t.isStructStart()) {
+                    depth++;
+                } else if (t.isStructEnd()) {
+                    depth--;
+                }
+            }
+            return token == JsonToken.START_OBJECT ? "{" + children + " fields}" : "[" + children + " items]";
+        }
+        String text = token == JsonToken.VALUE_STRING ? quote(parser.getText()) : parser.getText();
+        return text.length() > MAX_SNIPPET_LENGTH ? text.substring(0, MAX_SNIPPET_LENGTH) + "..." : text;
+    }
+
+    private static String quote(String value) {
+        String shown = value.length() > MAX_SNIPPET_LENGTH ? value.substring(0, MAX_SNIPPET_LENGTH) : value;
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(shown)) + '"';
+    }
+}
@@ -0,0 +1,111 @@
+package com.apitestinghub.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the values selected by a set of {@link JsonPathPattern}s in one pass over a token stream.
+ * <p>
+ * No tree is built: subtrees that no pattern can reach are skipped without being tokenized into paths,
+ * and reading stops as soon as every pattern is definite and has been found.
+ */
+public final class StreamingJsonSelector {
+
+    /**
+     * Receives matches with the parser on the value's first token. Handlers may read the current token
+     * but must not advance the parser.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int pattern, JsonParser parser) throws IOException;
+    }
+
+    private final List<JsonPathPattern> patterns;
+    private final MatchHandler handler;
+    private final boolean allDefinite;
+    private final boolean[] found;
+    private final List<Object> path = new ArrayList<>();
+    private int remaining;
+
+    private StreamingJsonSelector(List<JsonPathPattern> patterns, MatchHandler handler) {
+        this.patterns = patterns;
+        this.handler = handler;
+        this.allDefinite = patterns.stream().allMatch(JsonPathPattern::isDefinite);
+        this.found = new boolean[patterns.size()];
+        this.remaining = patterns.size();
+    }
+
+    /**
+     * Read one JSON document from {@code parser}, reporting every value selected by {@code patterns}
+     * in document order.
+     */
+    public static void select(JsonParser parser, List<JsonPathPattern> patterns, MatchHandler handler)
+            throws IOException {
+        if (patterns.isEmpty() || parser.nextToken() == null) {
+            return;
+        }
+        new StreamingJsonSelector(patterns, handler).visit(parser);
+    }
+
+    /**
+     * @return {@code false} once nothing is left to find
+     */
+    private boolean visit(JsonParser parser) throws IOException {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (!(allDefinite && found[i]) && patterns.get(i).matches(path)) {
+                handler.onMatch(i, parser);
+                if (!found[i]) {
+                    found[i] = true;
+                    remaining--;
+                }
+            }
+        }
+        if (allDefinite && remaining == 0) {
+            return false;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return true;
+        }
+        if (!mayMatchBelow()) {
+            parser.skipChildren();
+            return true;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                path.add(parser.currentName());
+                parser.nextToken();
+                boolean more = visit(parser);
+                path.remove(path.size() - 1);
+                if (!more) {
+                    return false;
+                }
+            }
+        } else {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                path.add(index++);
+                boolean more = visit(parser);
+                path.remove(path.size() - 1);
+                if (!more) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean mayMatchBelow() {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (!(allDefinite && found[i]) && patterns.get(i).mayMatchBelow(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.apitestinghub.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Request text with {@code {{variable}}} placeholders, parsed once into literal segments and variable names.
+ * <p>
+ * Names are letters, digits, {@code _}, {@code -} and {@code .}, with optional surrounding spaces.
+ * Anything else between double braces, and unclosed braces, is kept as literal text, so bodies that
+ * happen to contain braces are not mangled.
+ */
+public final class VariableTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_.-]+");
+
+    private final String[] literals;
+    private final String[] variables;
+
+    private VariableTemplate(List<String> literals, List<String> variables) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+    }
+
+    /**
+     * @return the parsed template, or {@code null} for {@code null} text
+     */
+    public static VariableTemplate compile(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+
+        int open;
+        while ((open = text.indexOf(OPEN, position)) >= 0) {
+            int close = text.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String name = text.substring(open + OPEN.length(), close).trim();
+            if (!NAME.matcher(name).matches()) {
+                // Not a placeholder; keep the braces and look for one further on
+                literal.append(text, position, open + OPEN.length());
+                position = open + OPEN.length();
+                continue;
+            }
+            literal.append(text, position, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            variables.add(name);
+            position = close + CLOSE.length();
+        }
+        literal.append(text, position, text.length());
+        literals.add(literal.toString());
+        return new VariableTemplate(literals, variables);
+    }
+
+    /**
+     * Names referenced by the template, in order of first use.
+     */
+    public Set<String> variables() {
+        return new LinkedHashSet<>(List.of(variables));
+    }
+
+    /**
+     * Render with {@code values}, which must return a value for every referenced name.
+     */
+    public String render(Function<String, String> values) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]).append(values.apply(variables[i]));
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiAssertion;
+import com.apitestinghub.dto.request.ApiAssertion.Operator;
+import com.apitestinghub.dto.request.ApiAssertion.Type;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.AssertionResult;
+import com.apitestinghub.mapper.ApiResponseMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssertionEngineTest {
+
+    private final AssertionEngine engine = new AssertionEngine(new ObjectMapper(), null, new ApiResponseMapper(),
+            100, 100, 100_000);
+
+    @Test
+    void matchesPatternAgainstHeader() {
+        List<AssertionResult> results = evaluate(response(Map.of("X-Version", "v2")),
+                new ApiAssertion(Type.HEADER, "x-version", Operator.MATCHES, "v\\d+"));
+
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.passed()).isTrue());
+    }
+
+    @Test
+    void catastrophicPatternFailsWithinBudget() {
+        String value = "a".repeat(40) + "!";
+        long start = System.nanoTime();
+
+        List<AssertionResult> results = evaluate(response(Map.of("X-Value", value)),
+                new ApiAssertion(Type.HEADER, "X-Value", Operator.MATCHES, "(.*a){20}"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.passed()).isFalse();
+            assertThat(result.message()).isEqualTo("Pattern took too long to evaluate");
+        });
+    }
+
+    @Test
+    void patternAssertionsRunOffTheCallingThread() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        ApiAssertion assertion = new ApiAssertion(Type.HEADER, "X-Value", Operator.MATCHES, ".*");
+
+        engine.evaluate(engine.compile(List.of(assertion)), response(Map.of("X-Value", "x")))
+                .doOnNext(ignored -> thread.set(Thread.currentThread().getName()))
+                .block();
+
+        assertThat(thread.get()).startsWith("boundedElastic");
+    }
+
+    private List<AssertionResult> evaluate(ApiExecutionResponse response, ApiAssertion assertion) {
+        return engine.evaluate(engine.compile(List.of(assertion)), response)
+                .block()
+                .assertions();
+    }
+
+    private static ApiExecutionResponse response(Map<String, String> headers) {
+        return new ApiExecutionResponse(200, "OK", headers, "", 5, LocalDateTime.now(), "id", true,
+                null, null, null);
+    }
+}
@@ -0,0 +1,206 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.CollectionRunRequest;
+import com.apitestinghub.dto.request.CollectionStep;
+import com.apitestinghub.dto.request.CollectionStep.Extraction;
+import com.apitestinghub.dto.request.CollectionStep.Source;
+import com.apitestinghub.dto.response.ApiExecutionResponse;
+import com.apitestinghub.dto.response.CollectionStepResult;
+import com.apitestinghub.dto.response.CollectionStepResult.Status;
+import com.apitestinghub.exception.ApiRequestException;
+import com.apitestinghub.mapper.ApiRequestMapper;
+import com.apitestinghub.mapper.ApiResponseMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CollectionRunServiceTest {
+
+    private final ApiRequestService apiRequestService = mock(ApiRequestService.class);
+    private final List<String> executedUrls = Collections.synchronizedList(new ArrayList<>());
+    private CollectionRunService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CollectionRunService(apiRequestService, new ApiRequestMapper(), new ApiResponseMapper(),
+                mock(ResponseSpillStore.class), new ObjectMapper());
+        ReflectionTestUtils.setField(service, "maxSteps", 100);
+        ReflectionTestUtils.setField(service, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(service, "maxPerHostConcurrency", 2);
+
+        // URLs containing "fail" error out; anything else answers 200 with its path echoed in a header
+        when(apiRequestService.executeRequest(any())).thenAnswer(invocation -> {
+            ApiRequest request = invocation.getArgument(0);
+            executedUrls.add(request.url());
+            if (request.url().contains("fail")) {
+                return Mono.error(new ApiRequestException("Connection refused"));
+            }
+            return Mono.just(response(Map.of("X-Path", URI.create(request.url()).getPath())));
+        });
+    }
+
+    @Test
+    void rejectsCycles() {
+        CollectionRunRequest collection = collection(
+                step("a", "http://api.test/a", List.of("b")),
+                step("b", "http://api.test/b", List.of("a")));
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("cycle");
+    }
+
+    @Test
+    void rejectsCyclesThroughVariables() {
+        CollectionRunRequest collection = collection(
+                new CollectionStep("a", get("http://api.test/{{y}}"), List.of(status("x")), null),
+                new CollectionStep("b", get("http://api.test/{{x}}"), List.of(status("y")), null));
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("cycle");
+    }
+
+    @Test
+    void rejectsUndefinedVariables() {
+        CollectionRunRequest collection = collection(step("a", "http://api.test/{{missing}}", null));
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("undefined variable {{missing}}");
+    }
+
+    @Test
+    void rejectsVariablesExtractedTwice() {
+        CollectionRunRequest collection = collection(
+                new CollectionStep("a", get("http://api.test/a"), List.of(status("code")), null),
+                new CollectionStep("b", get("http://api.test/b"), List.of(status("code")), null));
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("extracted by both 'a' and 'b'");
+    }
+
+    @Test
+    void rejectsDuplicateStepIds() {
+        CollectionRunRequest collection = collection(
+                step("a", "http://api.test/a", null),
+                step("a", "http://api.test/b", null));
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("Duplicate step id");
+    }
+
+    @Test
+    void rejectsVariablesWithoutValue() {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("token", null);
+        CollectionRunRequest collection = new CollectionRunRequest(
+                List.of(step("a", "http://api.test/{{token}}", null)), variables, null, null);
+
+        assertThatThrownBy(() -> service.run(collection))
+                .isInstanceOf(ApiRequestException.class)
+                .hasMessageContaining("Variable 'token' has no value");
+    }
+
+    @Test
+    void extractedValuesFeedLaterSteps() {
+        CollectionRunRequest collection = new CollectionRunRequest(List.of(
+                new CollectionStep("second", get("http://api.test{{path}}/next"), null, null),
+                new CollectionStep("first", get("http://api.test/{{start}}"),
+                        List.of(new Extraction("path", Source.HEADER, "x-path")), null)),
+                Map.of("start", "begin"), null, null);
+
+        List<CollectionStepResult> results = service.run(collection).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(results).extracting(CollectionStepResult::stepId).containsExactly("first", "second");
+        assertThat(results).allMatch(result -> result.status() == Status.SUCCEEDED);
+        assertThat(executedUrls).containsExactly("http://api.test/begin", "http://api.test/begin/next");
+    }
+
+    @Test
+    void skipsDependentsOfFailedStepsAndCompletes() {
+        CollectionRunRequest collection = collection(
+                step("root", "http://api.test/fail", null),
+                step("child", "http://api.test/child", List.of("root")),
+                step("grandchild", "http://api.test/grandchild", List.of("child")),
+                step("independent", "http://api.test/independent", null),
+                step("join", "http://api.test/join", List.of("independent", "root")));
+
+        List<CollectionStepResult> results = service.run(collection).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(5);
+        assertThat(statusOf(results, "root")).isEqualTo(Status.FAILED);
+        assertThat(statusOf(results, "independent")).isEqualTo(Status.SUCCEEDED);
+        assertThat(statusOf(results, "child")).isEqualTo(Status.SKIPPED);
+        assertThat(statusOf(results, "grandchild")).isEqualTo(Status.SKIPPED);
+        assertThat(statusOf(results, "join")).isEqualTo(Status.SKIPPED);
+        assertThat(results).filteredOn(result -> result.stepId().equals("grandchild"))
+                .extracting(CollectionStepResult::error)
+                .containsExactly("Dependency 'child' did not succeed");
+        assertThat(executedUrls).containsExactlyInAnyOrder("http://api.test/fail", "http://api.test/independent");
+    }
+
+    @Test
+    void completesWhenEveryStepAfterTheRootIsSkipped() {
+        CollectionRunRequest collection = collection(
+                new CollectionStep("root", get("http://api.test/root"),
+                        List.of(new Extraction("id", Source.HEADER, "x-missing")), null),
+                step("a", "http://api.test/{{id}}", null),
+                step("b", "http://api.test/b", List.of("a")));
+
+        List<CollectionStepResult> results = service.run(collection).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(results).extracting(CollectionStepResult::status)
+                .containsExactly(Status.FAILED, Status.SKIPPED, Status.SKIPPED);
+        assertThat(executedUrls).containsExactly("http://api.test/root");
+    }
+
+    private static Status statusOf(List<CollectionStepResult> results, String stepId) {
+        return results.stream()
+                .filter(result -> result.stepId().equals(stepId))
+                .map(CollectionStepResult::status)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static CollectionRunRequest collection(CollectionStep... steps) {
+        return new CollectionRunRequest(List.of(steps), null, null, null);
+    }
+
+    private static CollectionStep step(String id, String url, List<String> dependsOn) {
+        return new CollectionStep(id, get(url), null, dependsOn);
+    }
+
+    private static Extraction status(String variable) {
+        return new Extraction(variable, Source.STATUS, null);
+    }
+
+    private static ApiRequest get(String url) {
+        return new ApiRequest("GET", url, null, null, null, "session", null, null, null, null, null);
+    }
+
+    private static ApiExecutionResponse response(Map<String, String> headers) {
+        return new ApiExecutionResponse(200, "OK", headers, "", 1, LocalDateTime.now(), "request", true,
+                null, null, null);
+    }
+}
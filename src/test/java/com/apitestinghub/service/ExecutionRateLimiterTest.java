@@ -0,0 +1,38 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionRateLimiterTest {
+
+    private final ExecutionRateLimiter limiter = new ExecutionRateLimiter(true, 1, 2, 1, 1, 100,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        limiter.stop();
+    }
+
+    @Test
+    void hostRejectionDoesNotUseSessionPermit() {
+        limiter.acquire(request("http://one.test/a"));
+        assertThatThrownBy(() -> limiter.acquire(request("http://one.test/b")))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("target host");
+
+        assertThatCode(() -> limiter.acquire(request("http://two.test/a"))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.acquire(request("http://three.test/a")))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("session");
+    }
+
+    private static ApiRequest request(String url) {
+        return new ApiRequest("GET", url, null, null, null, "session", null, null, null, null, null);
+    }
+}
@@ -0,0 +1,141 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpResponseCacheTest {
+
+    private static final String URL = "http://example.test/resource";
+
+    private HttpResponseCache cache;
+    private AtomicInteger fetches;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HttpResponseCache(Caffeine.newBuilder().build());
+        fetches = new AtomicInteger();
+    }
+
+    @Test
+    void freshResponseIsServedFromCache() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+
+        execute(headers);
+        ResponseEntity<String> second = execute(headers);
+
+        assertThat(fetches).hasValue(1);
+        assertThat(second.getHeaders().getFirst(HttpResponseCache.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+    }
+
+    @Test
+    void privateResponseIsNotStored() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("private, max-age=60");
+
+        execute(headers);
+        ResponseEntity<String> second = execute(headers);
+
+        assertThat(fetches).hasValue(2);
+        assertThat(second.getHeaders().containsKey(HttpResponseCache.CACHE_STATUS_HEADER)).isFalse();
+    }
+
+    @Test
+    void responseSettingCookieIsNotStored() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        headers.add(HttpHeaders.SET_COOKIE, "session=user2");
+
+        execute(headers);
+        execute(headers);
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void sharedMaxAgeTakesPrecedenceOverMaxAge() {
+        HttpHeaders longShared = new HttpHeaders();
+        longShared.setCacheControl("max-age=0, s-maxage=60");
+        execute(longShared);
+        execute(longShared);
+        assertThat(fetches).hasValue(1);
+
+        cache.invalidate(null, null);
+        fetches.set(0);
+
+        HttpHeaders expiredShared = new HttpHeaders();
+        expiredShared.setCacheControl("max-age=60, s-maxage=0");
+        execute(expiredShared);
+        execute(expiredShared);
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void zeroMaxAgeWithoutAgeIsNotFresh() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=0");
+
+        execute(headers);
+        execute(headers);
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void ageReducesFreshness() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        headers.set(HttpHeaders.AGE, "60");
+
+        execute(headers);
+        execute(headers);
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void expiresEqualToDateWithoutAgeIsNotFresh() {
+        long now = System.currentTimeMillis();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(now);
+        headers.setExpires(now);
+
+        execute(headers);
+        execute(headers);
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void upstreamSpilledBodyHeaderDoesNotPreventStoring() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        headers.set("X-Spilled-Body", "upstream-value");
+
+        execute(headers);
+        ResponseEntity<String> second = execute(headers);
+
+        assertThat(fetches).hasValue(1);
+        assertThat(second.getHeaders().getFirst("X-Spilled-Body")).isEqualTo("upstream-value");
+    }
+
+    private ResponseEntity<String> execute(HttpHeaders upstreamHeaders) {
+        ApiRequest request = new ApiRequest("GET", URL, Map.of(), Map.of(), null, "session",
+                null, null, null, null, null);
+        return cache.execute(request, URL, Map.of(), conditional -> Mono.fromSupplier(() -> {
+            fetches.incrementAndGet();
+            return new ResponseEntity<>("{}", upstreamHeaders, HttpStatus.OK);
+        })).block();
+    }
+}
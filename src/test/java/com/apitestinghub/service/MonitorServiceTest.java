@@ -0,0 +1,81 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.dto.request.ApiRequest;
+import com.apitestinghub.dto.request.MonitorRequest;
+import com.apitestinghub.dto.response.MonitorStatus;
+import com.apitestinghub.exception.ApiRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MonitorServiceTest {
+
+    private final ApiRequestService apiRequestService = mock(ApiRequestService.class);
+    private final ExecutionRateLimiter rateLimiter = new ExecutionRateLimiter(false, 0, 0, 0, 0, 100,
+            new SimpleMeterRegistry());
+    private final MonitorService monitors = monitorService(2, 3);
+
+    @AfterEach
+    void tearDown() {
+        monitors.stop();
+        rateLimiter.stop();
+    }
+
+    @Test
+    void sessionLimitRejectsOnlyThatSession() {
+        monitors.register(monitor("a"));
+        monitors.register(monitor("a"));
+
+        assertThatThrownBy(() -> monitors.register(monitor("a")))
+                .isInstanceOf(ApiRequestException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThatCode(() -> monitors.register(monitor("b"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void deleteFreesTheSessionSlot() {
+        MonitorStatus first = monitors.register(monitor("a"));
+        monitors.register(monitor("a"));
+
+        assertThat(monitors.delete(first.id())).isTrue();
+        assertThatCode(() -> monitors.register(monitor("a"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void globalLimitIsNotConsumedBySessionRejections() {
+        monitors.register(monitor("a"));
+        monitors.register(monitor("a"));
+        assertThatThrownBy(() -> monitors.register(monitor("a"))).isInstanceOf(ApiRequestException.class);
+
+        monitors.register(monitor("b"));
+        assertThatThrownBy(() -> monitors.register(monitor("c")))
+                .isInstanceOf(ApiRequestException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private MonitorService monitorService(int maxPerSession, int maxMonitors) {
+        Supplier<Mono<Integer>> probe = () -> Mono.just(200);
+        when(apiRequestService.prepareStatusProbe(any())).thenReturn(probe);
+        return new MonitorService(apiRequestService, rateLimiter, Duration.ofMillis(100), 64, maxMonitors,
+                maxPerSession, Duration.ofSeconds(10), Duration.ofDays(1), 10, 10, Duration.ofSeconds(1), 0.1,
+                new SimpleMeterRegistry());
+    }
+
+    private static MonitorRequest monitor(String sessionId) {
+        ApiRequest request = new ApiRequest("GET", "http://monitored.test/health", null, null, null, sessionId,
+                null, null, null, null, null);
+        return new MonitorRequest(request, 60, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.apitestinghub.service;
+
+import com.apitestinghub.service.ResponseSpillStore.SpilledResponseEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseSpillStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ResponseSpillStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ResponseSpillStore(directory.toString(), DataSize.ofBytes(16), DataSize.ofBytes(8),
+                DataSize.ofKilobytes(64), DataSize.ofKilobytes(256), Duration.ofMinutes(1));
+        store.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void upstreamSpilledBodyHeaderIsAnOrdinaryHeader() {
+        ClientResponse response = ClientResponse.create(HttpStatus.OK)
+                .header("X-Spilled-Body", "not-a-spill-id")
+                .body("small")
+                .build();
+
+        ResponseEntity<String> entity = store.readEntity(response).block();
+
+        assertThat(entity).isNotInstanceOf(SpilledResponseEntity.class);
+        assertThat(entity.getBody()).isEqualTo("small");
+        assertThat(entity.getHeaders().getFirst("X-Spilled-Body")).isEqualTo("not-a-spill-id");
+    }
+
+    @Test
+    void largeBodyIsSpilledWithAPreview() {
+        ClientResponse response = ClientResponse.create(HttpStatus.OK)
+                .header("X-Spilled-Body", "not-a-spill-id")
+                .body("x".repeat(100))
+                .build();
+
+        ResponseEntity<String> entity = store.readEntity(response).block();
+
+        assertThat(entity).isInstanceOf(SpilledResponseEntity.class);
+        assertThat(entity.getBody()).isEqualTo("x".repeat(8));
+        assertThat(entity.getHeaders().getFirst("X-Spilled-Body")).isEqualTo("not-a-spill-id");
+        String spillId = ((SpilledResponseEntity) entity).spillId();
+        assertThat(store.describe(spillId)).hasValueSatisfying(handle -> assertThat(handle.sizeBytes()).isEqualTo(100));
+    }
+}
@@ -0,0 +1,211 @@
+package com.apitestinghub.service.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiResultDiskStoreTest {
+
+    private static final int RECORD_OVERHEAD = 48;
+    private static final String KEY_1 = "a".repeat(64);
+    private static final String KEY_2 = "b".repeat(64);
+    private static final String KEY_3 = "c".repeat(64);
+
+    @TempDir
+    Path directory;
+
+    private final List<AiResultDiskStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() {
+        opened.forEach(AiResultDiskStore::close);
+    }
+
+    @Test
+    void answersSurviveReopen() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "first");
+        store.write(KEY_2, "second");
+        store.close();
+
+        AiResultDiskStore reopened = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        assertThat(reopened.read(KEY_1)).contains("first");
+        assertThat(reopened.read(KEY_2)).contains("second");
+    }
+
+    @Test
+    void tombstoneShadowsRemovedAnswerAfterReopen() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "first");
+        // What remove() does before handing the tombstone to a background thread
+        ((Map<?, ?>) ReflectionTestUtils.getField(store, "index")).remove(KEY_1);
+        store.writeTombstone(KEY_1);
+        assertThat(store.read(KEY_1)).isEmpty();
+        store.close();
+
+        assertThat(open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5).read(KEY_1)).isEmpty();
+    }
+
+    @Test
+    void lateTombstoneKeepsAnswerStoredAfterRemoval() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "old");
+        store.remove(KEY_1);
+        store.write(KEY_1, "new");
+        // The tombstone task scheduled by remove() may only get to run now
+        store.writeTombstone(KEY_1);
+
+        assertThat(store.read(KEY_1)).contains("new");
+        store.close();
+        assertThat(open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5).read(KEY_1)).contains("new");
+    }
+
+    @Test
+    void recoveryStopsAtRecordWithBadChecksum() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "intact");
+        store.write(KEY_2, "corrupted");
+        store.write(KEY_3, "after");
+        store.close();
+
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        int valueOffset = indexOf(bytes, "corrupted".getBytes(StandardCharsets.UTF_8));
+        bytes[valueOffset] ^= 0x01;
+        Files.write(segment, bytes);
+
+        AiResultDiskStore reopened = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        assertThat(reopened.read(KEY_1)).contains("intact");
+        assertThat(reopened.read(KEY_2)).isEmpty();
+        assertThat(reopened.read(KEY_3)).isEmpty();
+    }
+
+    @Test
+    void tornWriteIsDiscardedAndOverwritten() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "complete");
+        store.write(KEY_2, "torn");
+        store.close();
+
+        // The length is written last, so a crash before it leaves a zero length in front of the record
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        int tornOffset = RECORD_OVERHEAD + "complete".length();
+        for (int i = 0; i < Integer.BYTES; i++) {
+            bytes[tornOffset + i] = 0;
+        }
+        Files.write(segment, bytes);
+
+        AiResultDiskStore reopened = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        assertThat(reopened.read(KEY_1)).contains("complete");
+        assertThat(reopened.read(KEY_2)).isEmpty();
+        reopened.write(KEY_3, "later");
+        reopened.close();
+
+        AiResultDiskStore again = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1), 0.5);
+        assertThat(again.read(KEY_1)).contains("complete");
+        assertThat(again.read(KEY_2)).isEmpty();
+        assertThat(again.read(KEY_3)).contains("later");
+    }
+
+    @Test
+    void compactionDropsOverwrittenSegmentsAndKeepsLiveAnswers() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(1), DataSize.ofMegabytes(1), 0.5);
+        store.write(KEY_1, "kept");
+        for (int i = 0; i < 20; i++) {
+            store.write(KEY_2, i + "-" + "x".repeat(300));
+        }
+
+        assertThat(segmentCount()).isLessThanOrEqualTo(3);
+        assertThat(store.read(KEY_1)).contains("kept");
+        assertThat(store.read(KEY_2)).contains("19-" + "x".repeat(300));
+        store.close();
+
+        AiResultDiskStore reopened = open(DataSize.ofKilobytes(1), DataSize.ofMegabytes(1), 0.5);
+        assertThat(reopened.read(KEY_1)).contains("kept");
+        assertThat(reopened.read(KEY_2)).contains("19-" + "x".repeat(300));
+    }
+
+    @Test
+    void maxSizeForcesCompactionBeforeThreshold() throws IOException {
+        // A threshold this low never compacts on its own while one record per segment stays live
+        AiResultDiskStore store = open(DataSize.ofKilobytes(1), DataSize.ofKilobytes(2), 0.01);
+        for (int i = 0; i < 20; i++) {
+            store.write(KEY_1, i + "-" + "x".repeat(300));
+        }
+
+        assertThat(segmentCount()).isLessThanOrEqualTo(2);
+        assertThat(store.read(KEY_1)).contains("19-" + "x".repeat(300));
+    }
+
+    @Test
+    void maxSizeRefusesWritesWhenEverythingIsLive() throws IOException {
+        AiResultDiskStore store = open(DataSize.ofKilobytes(1), DataSize.ofKilobytes(2), 0.5);
+        List<String> keys = Stream.of("1", "2", "3", "4").map(digit -> digit.repeat(64)).toList();
+        for (String key : keys) {
+            store.write(key, "x".repeat(300));
+        }
+
+        assertThatThrownBy(() -> store.write("5".repeat(64), "x".repeat(300)))
+                .isInstanceOf(IOException.class);
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(store.entryCount()).isEqualTo(4);
+        keys.forEach(key -> assertThat(store.read(key)).isPresent());
+    }
+
+    private AiResultDiskStore open(DataSize segmentSize, DataSize maxSize, double compactionThreshold)
+            throws IOException {
+        AiResultDiskStore store = new AiResultDiskStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(store, "maxSize", maxSize);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofDays(1));
+        ReflectionTestUtils.setField(store, "compactionThreshold", compactionThreshold);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= haystack.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("Value not found in segment");
+    }
+}
@@ -0,0 +1,96 @@
+package com.apitestinghub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GcraRateLimiterTest {
+
+    @Test
+    void allowsBurstThenSustainedRate() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        long wait = limiter.tryAcquire("a");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        TimeUnit.NANOSECONDS.sleep(wait);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void waitIsTimeUntilNextPermit() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        long wait = limiter.tryAcquire("a");
+
+        assertThat(wait).isBetween(TimeUnit.MILLISECONDS.toNanos(900), TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void evictsOnlyFullyRefilledKeys() throws InterruptedException {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 1, 100);
+        limiter.tryAcquire("idle");
+        TimeUnit.MILLISECONDS.sleep(150);
+        limiter.tryAcquire("busy");
+
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("busy")).isPositive();
+    }
+
+    @Test
+    void keysBeyondMaximumShareOverflowBucket() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 1, 2);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive();
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyKeyIsNotTheOverflowBucket() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 1, 2);
+        assertThat(limiter.tryAcquire("")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("")).isPositive();
+
+        limiter.release("b");
+        assertThat(limiter.tryAcquire("")).isPositive();
+        assertThat(limiter.tryAcquire("c")).isZero();
+    }
+
+    @Test
+    void releaseReturnsPermit() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 2, 100);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        limiter.release("a");
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+}
@@ -0,0 +1,101 @@
+package com.apitestinghub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 8;
+    private static final long START = 1_000_000;
+
+    @Test
+    void firesNeverEarlyAndAtMostOneTickLate() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Spans four levels: 80ms, 640ms, 5.12s and 40.96s per turn
+            deadlines.add(START + random.nextInt(20_000));
+        }
+        // Exact level boundaries, and one either side of them
+        for (long span = TICK * WHEEL_SIZE; span <= 40_960; span *= WHEEL_SIZE) {
+            deadlines.add(START + span - 1);
+            deadlines.add(START + span);
+            deadlines.add(START + span + 1);
+        }
+        for (int i = 0; i < deadlines.size(); i++) {
+            wheel.schedule(i, deadlines.get(i));
+        }
+
+        Map<Integer, Long> firedAt = runUntil(wheel, START + 42_000, 1);
+
+        assertThat(firedAt).hasSize(deadlines.size());
+        for (int i = 0; i < deadlines.size(); i++) {
+            long deadline = deadlines.get(i);
+            assertThat(firedAt.get(i)).as("deadline %d", deadline).isBetween(deadline, deadline + TICK);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.advanceTo(START + 500);
+
+        wheel.schedule("late", START);
+
+        assertThat(wheel.advanceTo(START + 505)).isEmpty();
+        assertThat(wheel.advanceTo(START + 510)).containsExactly("late");
+    }
+
+    @Test
+    void cancelAfterCascadeRemovesTimer() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("far", START + 5_000);
+
+        // Far enough for the timer to have moved down from the third level
+        assertThat(wheel.advanceTo(START + 4_990)).isEmpty();
+        assertThat(wheel.cancel(timeout)).isTrue();
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advanceTo(START + 10_000)).isEmpty();
+        assertThat(wheel.cancel(timeout)).isFalse();
+    }
+
+    @Test
+    void cancelAfterFiringReturnsFalse() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("soon", START + 15);
+
+        assertThat(wheel.advanceTo(START + 20)).containsExactly("soon");
+        assertThat(wheel.cancel(timeout)).isFalse();
+    }
+
+    @Test
+    void catchesUpAfterMissedTicks() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, START + i * 50L);
+        }
+
+        assertThat(wheel.advanceTo(START + 10_000)).hasSize(100);
+    }
+
+    private static <T> Map<T, Long> runUntil(HierarchicalTimingWheel<T> wheel, long end, long step) {
+        Map<T, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= end; now += step) {
+            for (T task : wheel.advanceTo(now)) {
+                assertThat(firedAt.put(task, now)).as("fired twice: %s", task).isNull();
+            }
+        }
+        return firedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.apitestinghub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpUtilsTest {
+
+    @Test
+    void hostIsLowerCasedAndEmptyWhenMissing() {
+        assertThat(HttpUtils.hostOf(" https://API.Example.test:8443/items?q=1 ")).isEqualTo("api.example.test");
+        assertThat(HttpUtils.hostOf("/relative/path")).isEmpty();
+        assertThat(HttpUtils.hostOf("http://bad host/")).isEmpty();
+        assertThat(HttpUtils.hostOf(null)).isEmpty();
+    }
+
+    @Test
+    void headerLookupIgnoresCase() {
+        Map<String, String> headers = Map.of("Content-Type", "application/json");
+
+        assertThat(HttpUtils.header(headers, "content-type")).contains("application/json");
+        assertThat(HttpUtils.header(headers, "ETag")).isEmpty();
+        assertThat(HttpUtils.header(null, "ETag")).isEmpty();
+    }
+}
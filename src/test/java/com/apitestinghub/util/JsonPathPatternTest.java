@@ -0,0 +1,102 @@
+package com.apitestinghub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPathPatternTest {
+
+    @Test
+    void fieldPathMatchesExactly() {
+        JsonPathPattern pattern = JsonPathPattern.compile("$.a.b");
+
+        assertThat(pattern.matches(List.of("a", "b"))).isTrue();
+        assertThat(pattern.matches(List.of("a"))).isFalse();
+        assertThat(pattern.matches(List.of("a", "b", "c"))).isFalse();
+        assertThat(pattern.isDefinite()).isTrue();
+    }
+
+    @Test
+    void leadingDollarIsOptional() {
+        assertThat(JsonPathPattern.compile("items.id").matches(List.of("items", "id"))).isTrue();
+    }
+
+    @Test
+    void indexAndWildcardSteps() {
+        JsonPathPattern index = JsonPathPattern.compile("$.items[0]");
+        assertThat(index.matches(List.of("items", 0))).isTrue();
+        assertThat(index.matches(List.of("items", 1))).isFalse();
+
+        JsonPathPattern anyIndex = JsonPathPattern.compile("$.items[*].id");
+        assertThat(anyIndex.matches(List.of("items", 3, "id"))).isTrue();
+        assertThat(anyIndex.matches(List.of("items", "x", "id"))).isFalse();
+        assertThat(anyIndex.isDefinite()).isFalse();
+
+        JsonPathPattern anyField = JsonPathPattern.compile("$.*.id");
+        assertThat(anyField.matches(List.of("user", "id"))).isTrue();
+        assertThat(anyField.matches(List.of(0, "id"))).isFalse();
+    }
+
+    @Test
+    void descendantStepMatchesAtAnyDepth() {
+        JsonPathPattern pattern = JsonPathPattern.compile("$..id");
+
+        assertThat(pattern.matches(List.of("id"))).isTrue();
+        assertThat(pattern.matches(List.of("a", 0, "b", "id"))).isTrue();
+        assertThat(pattern.matches(List.of("a", "idx"))).isFalse();
+        assertThat(pattern.isDefinite()).isFalse();
+    }
+
+    @Test
+    void mayMatchBelowPrunesUnreachableSubtrees() {
+        JsonPathPattern pattern = JsonPathPattern.compile("$.a.b");
+        assertThat(pattern.mayMatchBelow(List.of())).isTrue();
+        assertThat(pattern.mayMatchBelow(List.of("a"))).isTrue();
+        assertThat(pattern.mayMatchBelow(List.of("c"))).isFalse();
+        assertThat(pattern.mayMatchBelow(List.of("a", "b"))).isFalse();
+
+        assertThat(JsonPathPattern.compile("$..id").mayMatchBelow(List.of("x", 3))).isTrue();
+    }
+
+    @Test
+    void rejectsUnsupportedExpressions() {
+        for (String expression : List.of("$.a[", "$.a[x]", "$.a..", "$a", "$.a.")) {
+            assertThatThrownBy(() -> JsonPathPattern.compile(expression))
+                    .as(expression)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void pointerTokensMatchFieldsAndIndices() {
+        JsonPathPattern pattern = JsonPathPattern.compilePointer("/items/0/id");
+
+        assertThat(pattern.matches(List.of("items", 0, "id"))).isTrue();
+        assertThat(pattern.matches(List.of("items", "0", "id"))).isTrue();
+        assertThat(pattern.matches(List.of("items", 1, "id"))).isFalse();
+        assertThat(pattern.isDefinite()).isTrue();
+    }
+
+    @Test
+    void pointerUnescapesTokens() {
+        assertThat(JsonPathPattern.compilePointer("/a~1b/c~0d").matches(List.of("a/b", "c~d"))).isTrue();
+        assertThat(JsonPathPattern.compilePointer("/a~01").matches(List.of("a~1"))).isTrue();
+    }
+
+    @Test
+    void emptyPointerSelectsDocument() {
+        JsonPathPattern pattern = JsonPathPattern.compilePointer("");
+
+        assertThat(pattern.matches(List.of())).isTrue();
+        assertThat(pattern.matches(List.of("a"))).isFalse();
+    }
+
+    @Test
+    void pointerMustStartWithSlash() {
+        assertThatThrownBy(() -> JsonPathPattern.compilePointer("a/b"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
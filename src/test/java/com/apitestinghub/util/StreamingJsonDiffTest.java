@@ -0,0 +1,93 @@
+package com.apitestinghub.util;
+
+import com.apitestinghub.util.StreamingJsonDiff.Change;
+import com.apitestinghub.util.StreamingJsonDiff.Kind;
+import com.apitestinghub.util.StreamingJsonDiff.Result;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingJsonDiffTest {
+
+    @Test
+    void identicalDocumentsHaveNoChanges() throws IOException {
+        Result result = diff("{\"a\":1,\"b\":[1,{\"c\":null}]}", "{\"a\":1,\"b\":[1,{\"c\":null}]}");
+
+        assertThat(result.changes()).isEmpty();
+        assertThat(result.truncated()).isFalse();
+    }
+
+    @Test
+    void fieldsOutOfOrderAreMatchedByName() throws IOException {
+        Result result = diff("{\"a\":1,\"b\":{\"x\":1},\"c\":3}", "{\"c\":3,\"b\":{\"x\":2},\"a\":1}");
+
+        assertThat(result.changes()).containsExactly(new Change(Kind.CHANGED, "$.b.x", "1", "2"));
+    }
+
+    @Test
+    void addedAndRemovedFieldsAndItems() throws IOException {
+        Result result = diff("{\"a\":1,\"items\":[1,2,3]}", "{\"b\":\"x\",\"items\":[1,2]}");
+
+        assertThat(result.changes()).containsExactlyInAnyOrder(
+                new Change(Kind.REMOVED, "$.a", "1", null),
+                new Change(Kind.ADDED, "$.b", null, "\"x\""),
+                new Change(Kind.REMOVED, "$.items[2]", "3", null));
+    }
+
+    @Test
+    void numbersCompareByValue() throws IOException {
+        assertThat(diff("{\"n\":1}", "{\"n\":1.0}").changes()).isEmpty();
+        assertThat(diff("{\"n\":100}", "{\"n\":1e2}").changes()).isEmpty();
+        assertThat(diff("{\"n\":1}", "{\"n\":2}").changes()).hasSize(1);
+        assertThat(diff("{\"n\":10}", "{\"n\":\"10\"}").changes()).hasSize(1);
+    }
+
+    @Test
+    void containersAreShownBySize() throws IOException {
+        Result result = diff("{\"a\":{\"x\":1,\"y\":2}}", "{\"a\":[1,2,3]}");
+
+        assertThat(result.changes()).containsExactly(new Change(Kind.CHANGED, "$.a", "{2 fields}", "[3 items]"));
+    }
+
+    @Test
+    void ignoredPathsAreSkipped() throws IOException {
+        List<JsonPathPattern> ignored = List.of(JsonPathPattern.compile("$..timestamp"),
+                JsonPathPattern.compile("$.meta.*"));
+        StreamingJsonDiff diff = new StreamingJsonDiff(new ObjectMapper().getFactory(), ignored, 100);
+
+        Result result = diff.diff(new StringReader("{\"timestamp\":1,\"meta\":{\"id\":1},\"v\":1}"),
+                new StringReader("{\"v\":2,\"meta\":{\"id\":2,\"extra\":true},\"items\":[{\"timestamp\":3}]}"));
+
+        assertThat(result.changes()).containsExactlyInAnyOrder(
+                new Change(Kind.CHANGED, "$.v", "1", "2"),
+                new Change(Kind.ADDED, "$.items", null, "[1 items]"));
+    }
+
+    @Test
+    void stopsAtLimit() throws IOException {
+        StreamingJsonDiff diff = new StreamingJsonDiff(new ObjectMapper().getFactory(), List.of(), 2);
+
+        Result result = diff.diff(new StringReader("[1,2,3,4,5]"), new StringReader("[6,7,8,9,10]"));
+
+        assertThat(result.changes()).hasSize(2);
+        assertThat(result.truncated()).isTrue();
+    }
+
+    @Test
+    void rejectsScalarsAndTrailingContent() {
+        assertThatThrownBy(() -> diff("1", "1")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> diff("{} garbage", "{}")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> diff("{}", "{} {}")).isInstanceOf(IOException.class);
+    }
+
+    private static Result diff(String before, String after) throws IOException {
+        return new StreamingJsonDiff(new ObjectMapper().getFactory(), List.of(), 100)
+                .diff(new StringReader(before), new StringReader(after));
+    }
+}